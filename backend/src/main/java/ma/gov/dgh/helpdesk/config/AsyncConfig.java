@@ -1,5 +1,6 @@
 package ma.gov.dgh.helpdesk.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -7,6 +8,7 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Configuration for async processing and scheduling
@@ -43,4 +45,72 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+    
+    /**
+     * Task executor for subnet sweep probes (one thread per in-flight probe)
+     */
+    @Bean(name = "networkSweepExecutor")
+    public ThreadPoolTaskExecutor networkSweepExecutor(
+            @Value("${network.discovery.sweep.max-in-flight:256}") int maxInFlight) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxInFlight);
+        executor.setMaxPoolSize(maxInFlight);
+        executor.setQueueCapacity(maxInFlight);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setDaemon(true);
+        executor.setThreadNamePrefix("DGH-Sweep-");
+        executor.initialize();
+        return executor;
+    }
+    
+    /**
+     * Task executor for discovery enrichment lookups (reverse DNS, ARP, SNMP)
+     */
+    @Bean(name = "networkEnrichmentExecutor")
+    public ThreadPoolTaskExecutor networkEnrichmentExecutor(
+            @Value("${network.discovery.pipeline.enrichment-threads:48}") int enrichmentThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(enrichmentThreads);
+        executor.setMaxPoolSize(enrichmentThreads);
+        executor.setQueueCapacity(1000);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setDaemon(true);
+        executor.setThreadNamePrefix("DGH-Enrich-");
+        executor.initialize();
+        return executor;
+    }
+    
+    /**
+     * Single-threaded executor that sends ticket change events to stream subscribers in commit order
+     */
+    @Bean(name = "ticketEventExecutor")
+    public ThreadPoolTaskExecutor ticketEventExecutor(
+            @Value("${ticket.stream.queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setDaemon(true);
+        executor.setThreadNamePrefix("DGH-TicketEvents-");
+        executor.initialize();
+        return executor;
+    }
+    
+    /**
+     * Task executor for SLA breach handling; when full the SLA timer thread runs the handler itself,
+     * so breaches are slowed down rather than dropped
+     */
+    @Bean(name = "slaBreachExecutor")
+    public ThreadPoolTaskExecutor slaBreachExecutor(
+            @Value("${sla.breach.threads:2}") int threads,
+            @Value("${sla.breach.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("DGH-SLA-Breach-");
+        executor.initialize();
+        return executor;
+    }
 }
@@ -20,6 +20,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import ma.gov.dgh.helpdesk.security.JwtTokenProvider;
+import ma.gov.dgh.helpdesk.security.PrincipalCache;
 import java.util.Arrays;
 
 @Configuration
@@ -28,8 +29,9 @@ import java.util.Arrays;
 public class DevelopmentSecurityConfig {
 
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter(UserDetailsService userDetailsService, JwtTokenProvider tokenProvider) {
-        return new JwtAuthenticationFilter(tokenProvider, userDetailsService);
+    public JwtAuthenticationFilter jwtAuthenticationFilter(UserDetailsService userDetailsService, JwtTokenProvider tokenProvider,
+                                                           PrincipalCache principalCache) {
+        return new JwtAuthenticationFilter(tokenProvider, userDetailsService, principalCache);
     }
 
     @Bean
@@ -2,16 +2,23 @@ package ma.gov.dgh.helpdesk.controller;
 
 import ma.gov.dgh.helpdesk.entity.ActivityLog;
 import ma.gov.dgh.helpdesk.entity.LogSeverity;
+import ma.gov.dgh.helpdesk.service.ActivityLogRetentionService;
 import ma.gov.dgh.helpdesk.service.ActivityLogService;
+import ma.gov.dgh.helpdesk.service.ActivityLogWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -25,24 +32,35 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class ActivityLogController {
     
+    private static final int MAX_KEYSET_PAGE_SIZE = 500;
+    
     @Autowired
     private ActivityLogService activityLogService;
     
     /**
-     * Get paginated activity logs with filters (Admin only)
+     * Get paginated activity logs with filters (Admin only).
+     * With before=<timestamp,id> (empty for the first page) the logs are returned as a keyset page
+     * with a nextCursor instead of an OFFSET page.
      */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Page<ActivityLog>> getActivityLogs(
+    public ResponseEntity<?> getActivityLogs(
             @RequestParam(required = false) String userIdentifier,
             @RequestParam(required = false) String action,
             @RequestParam(required = false) LogSeverity severity,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             @RequestParam(required = false) String searchTerm,
+            @RequestParam(required = false) String before,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") int size) {
         
+        if (before != null) {
+            int sliceSize = Math.max(1, Math.min(size, MAX_KEYSET_PAGE_SIZE));
+            return ResponseEntity.ok(activityLogService.getActivityLogsBefore(
+                    userIdentifier, action, severity, startDate, endDate, searchTerm, before, sliceSize));
+        }
+        
         Pageable pageable = PageRequest.of(page, size);
         Page<ActivityLog> logs = activityLogService.getActivityLogs(
                 userIdentifier, action, severity, startDate, endDate, searchTerm, pageable);
@@ -60,6 +78,16 @@ public class ActivityLogController {
         return ResponseEntity.ok(logs);
     }
     
+    /**
+     * Get the latest activity from memory, without a database query (Admin only)
+     */
+    @GetMapping("/live")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ActivityLog>> getLiveActivityLogs(@RequestParam(defaultValue = "50") int limit) {
+        List<ActivityLog> logs = activityLogService.getLiveActivityLogs(limit);
+        return ResponseEntity.ok(logs);
+    }
+    
     /**
      * Get activity logs by user (Admin only)
      */
@@ -150,6 +178,15 @@ public class ActivityLogController {
         return ResponseEntity.ok(suspiciousActivities);
     }
     
+    /**
+     * Get activity log writer statistics: queued, written, dropped and failed logs (Admin only)
+     */
+    @GetMapping("/writer-statistics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ActivityLogWriter.WriterStatistics> getWriterStatistics() {
+        return ResponseEntity.ok(activityLogService.getWriterStatistics());
+    }
+    
     /**
      * Get activity log by ID (Admin only)
      */
@@ -167,26 +204,50 @@ public class ActivityLogController {
     @DeleteMapping("/cleanup")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<String> deleteOldActivityLogs(@RequestParam(defaultValue = "90") int daysToKeep) {
-        activityLogService.deleteOldActivityLogs(daysToKeep);
-        return ResponseEntity.ok("Old activity logs deleted successfully");
+        ActivityLogRetentionService.RetentionProgress progress = activityLogService.deleteOldActivityLogs(daysToKeep);
+        if (progress == null || !progress.isCompleted()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Activity log cleanup is already running");
+        }
+        return ResponseEntity.ok("Old activity logs deleted successfully (" + progress.getDeleted() + " logs)");
+    }
+    
+    /**
+     * Get the progress of the current or last activity log retention run (Admin only)
+     */
+    @GetMapping("/retention")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ActivityLogRetentionService.RetentionProgress> getRetentionProgress() {
+        ActivityLogRetentionService.RetentionProgress progress = activityLogService.getRetentionProgress();
+        return progress != null ? ResponseEntity.ok(progress) : ResponseEntity.noContent().build();
     }
     
     /**
-     * Export activity logs (Admin only)
+     * Export activity logs as NDJSON (default) or CSV, streamed as they are read (Admin only)
      */
     @GetMapping("/export")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<ActivityLog>> exportActivityLogs(
+    public ResponseEntity<StreamingResponseBody> exportActivityLogs(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             @RequestParam(required = false) String userIdentifier,
-            @RequestParam(required = false) LogSeverity severity) {
+            @RequestParam(required = false) LogSeverity severity,
+            @RequestParam(defaultValue = "ndjson") String format) {
         
-        // For export, we'll get all logs without pagination
-        Pageable pageable = PageRequest.of(0, Integer.MAX_VALUE);
-        Page<ActivityLog> logs = activityLogService.getActivityLogs(
-                userIdentifier, null, severity, startDate, endDate, null, pageable);
+        ActivityLogService.ExportFormat exportFormat;
+        try {
+            exportFormat = ActivityLogService.ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + format + " (expected ndjson or csv)");
+        }
+        
+        StreamingResponseBody body = outputStream -> activityLogService.exportActivityLogs(
+                userIdentifier, severity, startDate, endDate, exportFormat, outputStream);
         
-        return ResponseEntity.ok(logs.getContent());
+        boolean csv = exportFormat == ActivityLogService.ExportFormat.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"activity-logs." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
     }
-} 
\ No newline at end of file
+}
@@ -1,15 +1,29 @@
 package ma.gov.dgh.helpdesk.controller;
 
 import ma.gov.dgh.helpdesk.service.EquipmentService;
+import ma.gov.dgh.helpdesk.service.ReportingService;
+import ma.gov.dgh.helpdesk.service.StatisticsCounterService;
+import ma.gov.dgh.helpdesk.service.TicketRollupService;
 import ma.gov.dgh.helpdesk.service.TicketService;
 import ma.gov.dgh.helpdesk.service.UserService;
 import ma.gov.dgh.helpdesk.entity.User;
 import ma.gov.dgh.helpdesk.entity.Ticket;
 import ma.gov.dgh.helpdesk.entity.Equipment;
+import ma.gov.dgh.helpdesk.entity.EquipmentStatus;
+import ma.gov.dgh.helpdesk.entity.TicketCategory;
+import ma.gov.dgh.helpdesk.entity.TicketPriority;
+import ma.gov.dgh.helpdesk.entity.TicketStatus;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.Map;
@@ -23,15 +37,26 @@ import java.util.HashMap;
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:4200", "http://dgh-helpdesk-frontend-westus2.westus2.azurecontainer.io"})
 public class DashboardController {
     
+    private static final int MAX_LIST_LIMIT = 200;
+    private static final int MAX_TREND_DAYS = 1096;
+    
     private final UserService userService;
     private final EquipmentService equipmentService;
     private final TicketService ticketService;
+    private final StatisticsCounterService statisticsCounterService;
+    private final ReportingService reportingService;
+    private final TicketRollupService ticketRollupService;
     
     @Autowired
-    public DashboardController(UserService userService, EquipmentService equipmentService, TicketService ticketService) {
+    public DashboardController(UserService userService, EquipmentService equipmentService, TicketService ticketService,
+                               StatisticsCounterService statisticsCounterService, ReportingService reportingService,
+                               TicketRollupService ticketRollupService) {
         this.userService = userService;
         this.equipmentService = equipmentService;
         this.ticketService = ticketService;
+        this.statisticsCounterService = statisticsCounterService;
+        this.reportingService = reportingService;
+        this.ticketRollupService = ticketRollupService;
     }
     
     /**
@@ -39,9 +64,11 @@ public class DashboardController {
      */
     @GetMapping("/statistics")
     public ResponseEntity<DashboardStatistics> getDashboardStatistics() {
-        UserService.UserStatistics userStats = userService.getUserStatistics();
-        EquipmentService.EquipmentStatistics equipmentStats = equipmentService.getEquipmentStatistics();
-        TicketService.TicketStatistics ticketStats = ticketService.getTicketStatistics();
+        // Single read of the materialized counters
+        Map<String, Long> counters = statisticsCounterService.getCounters();
+        UserService.UserStatistics userStats = StatisticsCounterService.toUserStatistics(counters);
+        EquipmentService.EquipmentStatistics equipmentStats = StatisticsCounterService.toEquipmentStatistics(counters);
+        TicketService.TicketStatistics ticketStats = StatisticsCounterService.toTicketStatistics(counters);
         
         DashboardStatistics dashboardStats = new DashboardStatistics(userStats, equipmentStats, ticketStats);
         return ResponseEntity.ok(dashboardStats);
@@ -57,31 +84,27 @@ public class DashboardController {
             return ResponseEntity.notFound().build();
         }
         
-        // Get tickets assigned to this technician
-        List<Ticket> assignedTickets = ticketService.findByAssignedTo(technician.get());
+        // Count tickets assigned to this technician by status
+        Map<String, Long> ticketsByStatus = ticketService.countByStatusForAssignee(technician.get());
         
         // Calculate statistics
-        long totalAssigned = assignedTickets.size();
-        long openTickets = assignedTickets.stream().filter(t -> t.getStatus().name().equals("OPEN")).count();
-        long inProgressTickets = assignedTickets.stream().filter(t -> t.getStatus().name().equals("IN_PROGRESS")).count();
-        long resolvedTickets = assignedTickets.stream().filter(t -> 
-            t.getStatus().name().equals("RESOLVED") || t.getStatus().name().equals("CLOSED")).count();
+        long totalAssigned = ticketsByStatus.values().stream().mapToLong(Long::longValue).sum();
+        long openTickets = ticketsByStatus.getOrDefault("OPEN", 0L);
+        long inProgressTickets = ticketsByStatus.getOrDefault("IN_PROGRESS", 0L);
+        long resolvedTickets = ticketsByStatus.getOrDefault("RESOLVED", 0L) + ticketsByStatus.getOrDefault("CLOSED", 0L);
         
-        // Get unassigned tickets
-        List<Ticket> unassignedTickets = ticketService.findUnassignedTickets();
+        // Count unassigned tickets
+        long unassignedTickets = ticketService.countUnassignedTickets();
         
-        // Get equipment alerts (offline/maintenance equipment)
-        List<Equipment> allEquipment = equipmentService.findAll();
-        long equipmentAlerts = allEquipment.stream()
-            .filter(e -> e.getStatus().name().equals("OFFLINE") || e.getStatus().name().equals("MAINTENANCE"))
-            .count();
+        // Count equipment alerts (offline/maintenance equipment)
+        long equipmentAlerts = equipmentService.countAlerts();
         
         TechnicianStatistics stats = new TechnicianStatistics(
             totalAssigned,
             openTickets,
             inProgressTickets,
             resolvedTickets,
-            unassignedTickets.size(),
+            unassignedTickets,
             equipmentAlerts
         );
         
@@ -98,24 +121,16 @@ public class DashboardController {
             return ResponseEntity.notFound().build();
         }
         
-        List<Ticket> assignedTickets = ticketService.findByAssignedTo(technician.get());
-        
         // Group tickets by priority
-        Map<String, Long> ticketsByPriority = assignedTickets.stream()
-            .collect(java.util.stream.Collectors.groupingBy(
-                t -> t.getPriority().name(),
-                java.util.stream.Collectors.counting()
-            ));
+        Map<String, Long> ticketsByPriority = ticketService.countByPriorityForAssignee(technician.get());
         
         // Group tickets by category
-        Map<String, Long> ticketsByCategory = assignedTickets.stream()
-            .collect(java.util.stream.Collectors.groupingBy(
-                t -> t.getCategory().name(),
-                java.util.stream.Collectors.counting()
-            ));
+        Map<String, Long> ticketsByCategory = ticketService.countByCategoryForAssignee(technician.get());
+        
+        long totalTickets = ticketsByPriority.values().stream().mapToLong(Long::longValue).sum();
         
         TechnicianWorkload workload = new TechnicianWorkload(
-            assignedTickets.size(),
+            totalTickets,
             ticketsByPriority,
             ticketsByCategory
         );
@@ -136,22 +151,16 @@ public class DashboardController {
             return ResponseEntity.notFound().build();
         }
         
-        List<Ticket> assignedTickets = ticketService.findByAssignedTo(technician.get());
+        Map<String, Long> ticketsByStatus = ticketService.countByStatusForAssignee(technician.get());
         
         // Calculate performance metrics
-        long totalTickets = assignedTickets.size();
-        long resolvedTickets = assignedTickets.stream()
-            .filter(t -> t.getStatus().name().equals("RESOLVED") || t.getStatus().name().equals("CLOSED"))
-            .count();
+        long totalTickets = ticketsByStatus.values().stream().mapToLong(Long::longValue).sum();
+        long resolvedTickets = ticketsByStatus.getOrDefault("RESOLVED", 0L) + ticketsByStatus.getOrDefault("CLOSED", 0L);
         
         double resolutionRate = totalTickets > 0 ? (double) resolvedTickets / totalTickets * 100 : 0;
         
-        // Calculate average resolution time (simplified)
-        double avgResolutionTime = assignedTickets.stream()
-            .filter(t -> t.getResolvedAt() != null && t.getCreatedAt() != null)
-            .mapToLong(t -> java.time.Duration.between(t.getCreatedAt(), t.getResolvedAt()).toHours())
-            .average()
-            .orElse(0.0);
+        // Average resolution time in hours, computed by the database
+        double avgResolutionTime = ticketService.getAverageResolutionHoursForAssignee(technician.get());
         
         TechnicianPerformance performance = new TechnicianPerformance(
             totalTickets,
@@ -173,13 +182,13 @@ public class DashboardController {
             return ResponseEntity.notFound().build();
         }
         
-        List<Equipment> allEquipment = equipmentService.findAll();
+        Map<EquipmentStatus, Long> equipmentByStatus = equipmentService.countByStatus();
         
         // Calculate equipment statistics
-        long totalEquipment = allEquipment.size();
-        long onlineEquipment = allEquipment.stream().filter(e -> e.getStatus().name().equals("ONLINE")).count();
-        long offlineEquipment = allEquipment.stream().filter(e -> e.getStatus().name().equals("OFFLINE")).count();
-        long maintenanceEquipment = allEquipment.stream().filter(e -> e.getStatus().name().equals("MAINTENANCE")).count();
+        long totalEquipment = equipmentByStatus.values().stream().mapToLong(Long::longValue).sum();
+        long onlineEquipment = equipmentByStatus.get(EquipmentStatus.ONLINE);
+        long offlineEquipment = equipmentByStatus.get(EquipmentStatus.OFFLINE);
+        long maintenanceEquipment = equipmentByStatus.get(EquipmentStatus.MAINTENANCE);
         
         TechnicianEquipmentStats stats = new TechnicianEquipmentStats(
             totalEquipment,
@@ -195,24 +204,18 @@ public class DashboardController {
      * Get priority queue for technician
      */
     @GetMapping("/technician/{technicianId}/priority-queue")
-    public ResponseEntity<List<Ticket>> getTechnicianPriorityQueue(@PathVariable Long technicianId) {
+    public ResponseEntity<List<Ticket>> getTechnicianPriorityQueue(
+            @PathVariable Long technicianId,
+            @RequestParam(defaultValue = "50") int limit) {
         Optional<User> technician = userService.findById(technicianId);
         if (technician.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
-        List<Ticket> assignedTickets = ticketService.findByAssignedTo(technician.get());
-        
-        // Sort by priority (CRITICAL, HIGH, MEDIUM, LOW) and then by creation date
-        assignedTickets.sort((t1, t2) -> {
-            int priorityCompare = t2.getPriority().getLevel() - t1.getPriority().getLevel();
-            if (priorityCompare != 0) {
-                return priorityCompare;
-            }
-            return t1.getCreatedAt().compareTo(t2.getCreatedAt());
-        });
+        // Sorted by priority (CRITICAL, HIGH, MEDIUM, LOW) and then by creation date in the database
+        List<Ticket> priorityQueue = ticketService.findPriorityQueueForAssignee(technician.get(), clampLimit(limit));
         
-        return ResponseEntity.ok(assignedTickets);
+        return ResponseEntity.ok(priorityQueue);
     }
     
     /**
@@ -228,22 +231,12 @@ public class DashboardController {
             return ResponseEntity.notFound().build();
         }
         
-        List<Ticket> assignedTickets = ticketService.findByAssignedTo(technician.get());
-        
-        // Calculate time tracking metrics (simplified)
-        long totalHours = assignedTickets.stream()
-            .filter(t -> t.getActualHours() != null)
-            .mapToLong(Ticket::getActualHours)
-            .sum();
-        
-        long estimatedHours = assignedTickets.stream()
-            .filter(t -> t.getEstimatedHours() != null)
-            .mapToLong(Ticket::getEstimatedHours)
-            .sum();
+        // Sum actual and estimated hours in the database
+        TicketService.HoursSummary hours = ticketService.sumHoursForAssignee(technician.get());
         
         TechnicianTimeTracking timeTracking = new TechnicianTimeTracking(
-            totalHours,
-            estimatedHours,
+            hours.getActualHours(),
+            hours.getEstimatedHours(),
             period
         );
         
@@ -254,18 +247,18 @@ public class DashboardController {
      * Get equipment alerts for technician's area
      */
     @GetMapping("/technician/{technicianId}/equipment-alerts")
-    public ResponseEntity<List<Equipment>> getTechnicianEquipmentAlerts(@PathVariable Long technicianId) {
+    public ResponseEntity<Page<Equipment>> getTechnicianEquipmentAlerts(
+            @PathVariable Long technicianId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         Optional<User> technician = userService.findById(technicianId);
         if (technician.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
-        List<Equipment> allEquipment = equipmentService.findAll();
-        
-        // Filter for equipment alerts (offline/maintenance)
-        List<Equipment> alerts = allEquipment.stream()
-            .filter(e -> e.getStatus().name().equals("OFFLINE") || e.getStatus().name().equals("MAINTENANCE"))
-            .collect(java.util.stream.Collectors.toList());
+        // Equipment alerts (offline/maintenance), most recently changed first
+        Pageable pageable = PageRequest.of(Math.max(page, 0), clampLimit(size), Sort.by("updatedAt").descending());
+        Page<Equipment> alerts = equipmentService.findAlerts(pageable);
         
         return ResponseEntity.ok(alerts);
     }
@@ -283,16 +276,10 @@ public class DashboardController {
             return ResponseEntity.notFound().build();
         }
         
-        List<Ticket> assignedTickets = ticketService.findByAssignedTo(technician.get());
-        
-        // Sort by updated date (most recent first) and limit results
-        assignedTickets.sort((t1, t2) -> t2.getUpdatedAt().compareTo(t1.getUpdatedAt()));
-        
-        if (assignedTickets.size() > limit) {
-            assignedTickets = assignedTickets.subList(0, limit);
-        }
+        // Most recently updated first, limited in the database
+        List<Ticket> recentTickets = ticketService.findRecentlyUpdatedForAssignee(technician.get(), clampLimit(limit));
         
-        return ResponseEntity.ok(assignedTickets);
+        return ResponseEntity.ok(recentTickets);
     }
     
     /**
@@ -322,6 +309,63 @@ public class DashboardController {
         return ResponseEntity.ok(statistics);
     }
     
+    /**
+     * Get resolution time (average, median, 90th percentile) and SLA compliance of tickets resolved
+     * during the last period days, grouped by category, priority or technician
+     */
+    @GetMapping("/tickets/resolution-metrics")
+    public ResponseEntity<ReportingService.ResolutionReport> getResolutionMetrics(
+            @RequestParam(defaultValue = "category") String groupBy,
+            @RequestParam(defaultValue = "30") int period) {
+        
+        ReportingService.ReportDimension dimension;
+        try {
+            dimension = ReportingService.ReportDimension.valueOf(groupBy.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported groupBy: " + groupBy + " (expected category, priority or technician)");
+        }
+        
+        return ResponseEntity.ok(reportingService.getResolutionReport(dimension, period));
+    }
+    
+    /**
+     * Get daily created, resolved, escalated and SLA breached ticket counts for the last days,
+     * read from the daily rollup and optionally narrowed to a status, priority, category or assignee
+     */
+    @GetMapping("/tickets/trend")
+    public ResponseEntity<List<TicketRollupService.DailyTrend>> getTicketTrend(
+            @RequestParam(defaultValue = "365") int days,
+            @RequestParam(required = false) TicketStatus status,
+            @RequestParam(required = false) TicketPriority priority,
+            @RequestParam(required = false) TicketCategory category,
+            @RequestParam(required = false) Long assigneeId) {
+        
+        if (days < 1 || days > MAX_TREND_DAYS) {
+            throw new IllegalArgumentException("Trend period must be between 1 and " + MAX_TREND_DAYS + " days");
+        }
+        LocalDate to = LocalDate.now();
+        List<TicketRollupService.DailyTrend> trend = ticketRollupService.getDailyTrend(
+            to.minusDays(days - 1L), to, status, priority, category, assigneeId);
+        return ResponseEntity.ok(trend);
+    }
+    
+    /**
+     * Rebuild the daily ticket rollup of a day range from the tickets table (Admin only)
+     */
+    @PostMapping("/tickets/trend/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> backfillTicketTrend(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        long rows = ticketRollupService.backfill(from, end);
+        return ResponseEntity.ok("Ticket rollup rebuilt from " + from + " to " + end + " (" + rows + " rows)");
+    }
+    
+    private int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIST_LIMIT));
+    }
+    
     // Inner classes for technician-specific responses
     
     public static class TechnicianStatistics {
@@ -1,17 +1,26 @@
 package ma.gov.dgh.helpdesk.controller;
 
 import ma.gov.dgh.helpdesk.entity.*;
+import ma.gov.dgh.helpdesk.exception.BusinessException;
+import ma.gov.dgh.helpdesk.service.TicketEventPublisher;
 import ma.gov.dgh.helpdesk.service.TicketService;
 import ma.gov.dgh.helpdesk.service.UserService;
 import ma.gov.dgh.helpdesk.repository.TicketRepository;
+import ma.gov.dgh.helpdesk.utils.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
@@ -35,15 +44,21 @@ import java.util.stream.Collectors;
 })
 public class TicketController {
     
+    private static final int MAX_SLICE_SIZE = 200;
+    private static final int MAX_CHANGES_PAGE_SIZE = 1000;
+    
     private final TicketService ticketService;
     private final UserService userService;
     private final TicketRepository ticketRepository;
+    private final TicketEventPublisher ticketEventPublisher;
     
     @Autowired
-    public TicketController(TicketService ticketService, UserService userService, TicketRepository ticketRepository) {
+    public TicketController(TicketService ticketService, UserService userService, TicketRepository ticketRepository,
+                            TicketEventPublisher ticketEventPublisher) {
         this.ticketService = ticketService;
         this.userService = userService;
         this.ticketRepository = ticketRepository;
+        this.ticketEventPublisher = ticketEventPublisher;
     }
     
     /**
@@ -51,6 +66,7 @@ public class TicketController {
      */
     public static class TicketDTO {
         private Long id;
+        private Long version;
         private String title;
         private String description;
         private TicketPriority priority;
@@ -71,6 +87,7 @@ public class TicketController {
         
         public TicketDTO(Ticket ticket) {
             this.id = ticket.getId();
+            this.version = ticket.getVersion();
             this.title = ticket.getTitle();
             this.description = ticket.getDescription();
             this.priority = ticket.getPriority();
@@ -94,6 +111,9 @@ public class TicketController {
         public Long getId() { return id; }
         public void setId(Long id) { this.id = id; }
         
+        public Long getVersion() { return version; }
+        public void setVersion(Long version) { this.version = version; }
+        
         public String getTitle() { return title; }
         public void setTitle(String title) { this.title = title; }
         
@@ -191,6 +211,101 @@ public class TicketController {
         public void setIsActive(Boolean isActive) { this.isActive = isActive; }
     }
     
+    /**
+     * DTO for a keyset slice of tickets; pass nextCursor as the before parameter to get the next slice
+     */
+    public static class TicketSliceDTO {
+        private List<TicketDTO> content;
+        private String nextCursor;
+        private boolean hasNext;
+        
+        public TicketSliceDTO(TicketService.TicketSlice slice) {
+            this.content = slice.getContent().stream()
+                .map(TicketDTO::new)
+                .collect(Collectors.toList());
+            this.nextCursor = slice.getNextCursor();
+            this.hasNext = slice.isHasNext();
+        }
+        
+        // Getters
+        public List<TicketDTO> getContent() { return content; }
+        public String getNextCursor() { return nextCursor; }
+        public boolean isHasNext() { return hasNext; }
+    }
+    
+    /**
+     * Compact DTO for delta sync: ticket state with user IDs instead of nested users
+     */
+    public static class TicketChangeDTO {
+        private Long id;
+        private String title;
+        private TicketPriority priority;
+        private TicketStatus status;
+        private TicketCategory category;
+        private Long createdById;
+        private Long assignedToId;
+        private Boolean isEscalated;
+        private LocalDateTime dueDate;
+        private LocalDateTime resolvedAt;
+        private LocalDateTime updatedAt;
+        
+        public TicketChangeDTO(Ticket ticket) {
+            this.id = ticket.getId();
+            this.title = ticket.getTitle();
+            this.priority = ticket.getPriority();
+            this.status = ticket.getStatus();
+            this.category = ticket.getCategory();
+            // Reading the ID of a lazy association does not load it
+            this.createdById = ticket.getCreatedBy() != null ? ticket.getCreatedBy().getId() : null;
+            this.assignedToId = ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null;
+            this.isEscalated = ticket.getIsEscalated();
+            this.dueDate = ticket.getDueDate();
+            this.resolvedAt = ticket.getResolvedAt();
+            this.updatedAt = ticket.getUpdatedAt();
+        }
+        
+        // Getters
+        public Long getId() { return id; }
+        public String getTitle() { return title; }
+        public TicketPriority getPriority() { return priority; }
+        public TicketStatus getStatus() { return status; }
+        public TicketCategory getCategory() { return category; }
+        public Long getCreatedById() { return createdById; }
+        public Long getAssignedToId() { return assignedToId; }
+        public Boolean getIsEscalated() { return isEscalated; }
+        public LocalDateTime getDueDate() { return dueDate; }
+        public LocalDateTime getResolvedAt() { return resolvedAt; }
+        public LocalDateTime getUpdatedAt() { return updatedAt; }
+    }
+    
+    /**
+     * DTO for a page of ticket changes
+     */
+    public static class TicketChangesDTO {
+        private List<TicketChangeDTO> changed;
+        private List<Long> deletedIds;
+        private String nextCursor;
+        private boolean hasMore;
+        private boolean fullResyncRequired;
+        
+        public TicketChangesDTO(TicketService.TicketChanges changes) {
+            this.changed = changes.getChanged().stream()
+                .map(TicketChangeDTO::new)
+                .collect(Collectors.toList());
+            this.deletedIds = changes.getDeletedIds();
+            this.nextCursor = changes.getNextCursor();
+            this.hasMore = changes.isHasMore();
+            this.fullResyncRequired = changes.isFullResyncRequired();
+        }
+        
+        // Getters
+        public List<TicketChangeDTO> getChanged() { return changed; }
+        public List<Long> getDeletedIds() { return deletedIds; }
+        public String getNextCursor() { return nextCursor; }
+        public boolean isHasMore() { return hasMore; }
+        public boolean isFullResyncRequired() { return fullResyncRequired; }
+    }
+    
     /**
      * Get all tickets with pagination and filtering
      */
@@ -225,141 +340,166 @@ public class TicketController {
     }
     
     /**
-     * Get ticket by ID
+     * Get tickets changed or deleted since a time, or since the nextCursor of a previous call.
+     * Keep calling with the returned nextCursor while hasMore is true; when fullResyncRequired
+     * is true the cache is too old and must be rebuilt from a sync without since or cursor.
+     * Non-admins only receive the tickets they created or are assigned to.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<TicketChangesDTO> getTicketChanges(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "200") int size) {
+        Optional<User> currentUser = SecurityUtils.getCurrentUser();
+        if (currentUser.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_CHANGES_PAGE_SIZE));
+        return ResponseEntity.ok(new TicketChangesDTO(
+            ticketService.getChangesSince(since, cursor, pageSize, currentUser.get())));
+    }
+    
+    /**
+     * Stream ticket changes as Server-Sent Events.
+     * The current user only receives events for tickets they can access.
+     * Answers 503 with Retry-After when the maximum number of streams is open.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTicketEvents() {
+        Optional<User> currentUser = SecurityUtils.getCurrentUser();
+        if (currentUser.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return ResponseEntity.ok(ticketEventPublisher.subscribe(currentUser.get()));
+        } catch (BusinessException.ServiceBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
+        }
+    }
+    
+    /**
+     * Get ticket by ID, with its version as ETag
      */
     @GetMapping("/{id}")
     public ResponseEntity<TicketDTO> getTicketById(@PathVariable Long id) {
         Optional<Ticket> ticket = ticketService.findById(id);
-        return ticket.map(t -> ResponseEntity.ok(new TicketDTO(t)))
+        return ticket.map(t -> ResponseEntity.ok().eTag(eTag(t)).body(new TicketDTO(t)))
                     .orElse(ResponseEntity.notFound().build());
     }
     
     /**
-     * Get tickets by status
+     * Get tickets by status, newest first, one keyset slice at a time
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<TicketDTO>> getTicketsByStatus(@PathVariable TicketStatus status) {
-        List<Ticket> tickets = ticketService.findByStatus(status);
-        List<TicketDTO> ticketDTOs = tickets.stream()
-            .map(TicketDTO::new)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(ticketDTOs);
+    public ResponseEntity<TicketSliceDTO> getTicketsByStatus(
+            @PathVariable TicketStatus status,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(new TicketSliceDTO(ticketService.findByStatus(status, before, sliceSize(size))));
     }
     
     /**
      * Get tickets by priority
      */
     @GetMapping("/priority/{priority}")
-    public ResponseEntity<List<TicketDTO>> getTicketsByPriority(@PathVariable TicketPriority priority) {
-        List<Ticket> tickets = ticketService.findByPriority(priority);
-        List<TicketDTO> ticketDTOs = tickets.stream()
-            .map(TicketDTO::new)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(ticketDTOs);
+    public ResponseEntity<TicketSliceDTO> getTicketsByPriority(
+            @PathVariable TicketPriority priority,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(new TicketSliceDTO(ticketService.findByPriority(priority, before, sliceSize(size))));
     }
     
     /**
      * Get tickets by category
      */
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<TicketDTO>> getTicketsByCategory(@PathVariable TicketCategory category) {
-        List<Ticket> tickets = ticketService.findByCategory(category);
-        List<TicketDTO> ticketDTOs = tickets.stream()
-            .map(TicketDTO::new)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(ticketDTOs);
+    public ResponseEntity<TicketSliceDTO> getTicketsByCategory(
+            @PathVariable TicketCategory category,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(new TicketSliceDTO(ticketService.findByCategory(category, before, sliceSize(size))));
     }
     
     /**
      * Get tickets created by user
      */
     @GetMapping("/created-by/{userId}")
-    public ResponseEntity<List<TicketDTO>> getTicketsCreatedByUser(@PathVariable Long userId) {
+    public ResponseEntity<TicketSliceDTO> getTicketsCreatedByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int size) {
         Optional<User> user = userService.findById(userId);
         if (user.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        List<Ticket> tickets = ticketService.findByCreatedBy(user.get());
-        List<TicketDTO> ticketDTOs = tickets.stream()
-            .map(TicketDTO::new)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(ticketDTOs);
+        return ResponseEntity.ok(new TicketSliceDTO(ticketService.findByCreatedBy(user.get(), before, sliceSize(size))));
     }
     
     /**
      * Get tickets assigned to user
      */
     @GetMapping("/assigned-to/{userId}")
-    public ResponseEntity<List<TicketDTO>> getTicketsAssignedToUser(@PathVariable Long userId) {
+    public ResponseEntity<TicketSliceDTO> getTicketsAssignedToUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int size) {
         Optional<User> user = userService.findById(userId);
         if (user.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        List<Ticket> tickets = ticketService.findByAssignedTo(user.get());
-        List<TicketDTO> ticketDTOs = tickets.stream()
-            .map(TicketDTO::new)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(ticketDTOs);
+        return ResponseEntity.ok(new TicketSliceDTO(ticketService.findByAssignedTo(user.get(), before, sliceSize(size))));
     }
     
     /**
      * Get unassigned tickets
      */
     @GetMapping("/unassigned")
-    public ResponseEntity<List<TicketDTO>> getUnassignedTickets() {
-        List<Ticket> tickets = ticketService.findUnassignedTickets();
-        List<TicketDTO> ticketDTOs = tickets.stream()
-            .map(TicketDTO::new)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(ticketDTOs);
+    public ResponseEntity<TicketSliceDTO> getUnassignedTickets(
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(new TicketSliceDTO(ticketService.findUnassignedTickets(before, sliceSize(size))));
     }
     
     /**
      * Get open tickets
      */
     @GetMapping("/open")
-    public ResponseEntity<List<TicketDTO>> getOpenTickets() {
-        List<Ticket> tickets = ticketService.findOpenTickets();
-        List<TicketDTO> ticketDTOs = tickets.stream()
-            .map(TicketDTO::new)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(ticketDTOs);
+    public ResponseEntity<TicketSliceDTO> getOpenTickets(
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(new TicketSliceDTO(ticketService.findOpenTickets(before, sliceSize(size))));
     }
     
     /**
      * Get overdue tickets
      */
     @GetMapping("/overdue")
-    public ResponseEntity<List<TicketDTO>> getOverdueTickets() {
-        List<Ticket> tickets = ticketService.findOverdueTickets();
-        List<TicketDTO> ticketDTOs = tickets.stream()
-            .map(TicketDTO::new)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(ticketDTOs);
+    public ResponseEntity<TicketSliceDTO> getOverdueTickets(
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(new TicketSliceDTO(ticketService.findOverdueTickets(before, sliceSize(size))));
     }
     
     /**
      * Get escalated tickets
      */
     @GetMapping("/escalated")
-    public ResponseEntity<List<TicketDTO>> getEscalatedTickets() {
-        List<Ticket> tickets = ticketService.findEscalatedTickets();
-        List<TicketDTO> ticketDTOs = tickets.stream()
-            .map(TicketDTO::new)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(ticketDTOs);
+    public ResponseEntity<TicketSliceDTO> getEscalatedTickets(
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(new TicketSliceDTO(ticketService.findEscalatedTickets(before, sliceSize(size))));
     }
     
     /**
      * Get critical open tickets
      */
     @GetMapping("/critical")
-    public ResponseEntity<List<TicketDTO>> getCriticalOpenTickets() {
-        List<Ticket> tickets = ticketService.findCriticalOpenTickets();
-        List<TicketDTO> ticketDTOs = tickets.stream()
-            .map(TicketDTO::new)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(ticketDTOs);
+    public ResponseEntity<TicketSliceDTO> getCriticalOpenTickets(
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(new TicketSliceDTO(ticketService.findCriticalOpenTickets(before, sliceSize(size))));
     }
     
     /**
@@ -393,31 +533,53 @@ public class TicketController {
     }
     
     /**
-     * Update an existing ticket
+     * Update an existing ticket.
+     * With an If-Match header (the ETag of GET /{id}), the update only applies if nobody changed the ticket since;
+     * otherwise 412 Precondition Failed is returned and the client should re-fetch and retry.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<TicketDTO> updateTicket(@PathVariable Long id, @Valid @RequestBody TicketUpdateRequest request) {
-        Optional<Ticket> existingTicket = ticketService.findById(id);
-        if (existingTicket.isEmpty()) {
+    public ResponseEntity<TicketDTO> updateTicket(@PathVariable Long id,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @Valid @RequestBody TicketUpdateRequest request) {
+        if (ticketService.findById(id).isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
-        Ticket ticket = existingTicket.get();
-        ticket.setTitle(request.getTitle());
-        ticket.setDescription(request.getDescription());
-        ticket.setPriority(request.getPriority());
-        ticket.setCategory(request.getCategory());
-        ticket.setStatus(request.getStatus());
+        Long expectedVersion = null;
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            expectedVersion = parseETag(ifMatch);
+            if (expectedVersion == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+        }
+        
+        // Detached copy with the requested values; the service applies them to the stored ticket
+        Ticket changes = new Ticket();
+        changes.setId(id);
+        changes.setVersion(expectedVersion);
+        changes.setTitle(request.getTitle());
+        changes.setDescription(request.getDescription());
+        changes.setPriority(request.getPriority());
+        changes.setCategory(request.getCategory());
+        changes.setStatus(request.getStatus());
         
         if (request.getAssignedToId() != null) {
             Optional<User> assignedTo = userService.findById(request.getAssignedToId());
-            assignedTo.ifPresent(ticket::setAssignedTo);
-        } else {
-            ticket.setAssignedTo(null);
+            if (assignedTo.isEmpty()) {
+                return ResponseEntity.badRequest().build();
+            }
+            changes.setAssignedTo(assignedTo.get());
         }
         
-        Ticket updatedTicket = ticketService.updateTicket(ticket);
-        return ResponseEntity.ok(new TicketDTO(updatedTicket));
+        try {
+            Ticket updatedTicket = ticketService.updateTicket(changes);
+            return ResponseEntity.ok().eTag(eTag(updatedTicket)).body(new TicketDTO(updatedTicket));
+        } catch (OptimisticLockingFailureException e) {
+            if (expectedVersion == null) {
+                throw e;
+            }
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
     }
     
     /**
@@ -511,6 +673,52 @@ public class TicketController {
         }
     }
     
+    /**
+     * Assign, change the status of or close many tickets, selected by ID or by filter.
+     * Only tickets the current user can access are changed; the others are reported as forbidden.
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TECHNICIAN')")
+    public ResponseEntity<TicketService.BulkResult> bulkUpdateTickets(@RequestBody BulkTicketRequest request) {
+        if (request.getAction() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<User> currentUser = SecurityUtils.getCurrentUser();
+        if (currentUser.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        User assignedTo = null;
+        if (request.getAssignedToId() != null) {
+            Optional<User> user = userService.findById(request.getAssignedToId());
+            if (user.isEmpty()) {
+                return ResponseEntity.badRequest().build();
+            }
+            assignedTo = user.get();
+        }
+        
+        List<Long> ticketIds = request.getTicketIds();
+        if (ticketIds == null && request.getFilter() != null) {
+            BulkTicketFilter filter = request.getFilter();
+            User filterAssignee = null;
+            if (filter.getAssignedToId() != null) {
+                Optional<User> user = userService.findById(filter.getAssignedToId());
+                if (user.isEmpty()) {
+                    return ResponseEntity.badRequest().build();
+                }
+                filterAssignee = user.get();
+            }
+            ticketIds = ticketService.findBulkTicketIds(filter.getStatus(), filter.getPriority(), filter.getCategory(),
+                filterAssignee, Boolean.TRUE.equals(filter.getUnassigned()), currentUser.get());
+            if (ticketIds.isEmpty()) {
+                return ResponseEntity.ok(new TicketService.BulkResult(request.getAction(), List.of()));
+            }
+        }
+        
+        return ResponseEntity.ok(ticketService.bulkUpdate(request.getAction(), ticketIds, assignedTo,
+            request.getStatus(), request.getComment(), currentUser.get()));
+    }
+    
     /**
      * Get ticket statistics
      */
@@ -520,6 +728,29 @@ public class TicketController {
         return ResponseEntity.ok(statistics);
     }
     
+    private int sliceSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+    }
+    
+    private String eTag(Ticket ticket) {
+        return "\"" + ticket.getVersion() + "\"";
+    }
+    
+    private Long parseETag(String eTag) {
+        String value = eTag.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
     // Inner classes for request DTOs
     
     public static class TicketCreateRequest {
@@ -618,6 +849,56 @@ public class TicketController {
         public void setIsInternal(Boolean isInternal) { this.isInternal = isInternal; }
     }
     
+    public static class BulkTicketRequest {
+        private TicketService.BulkAction action;
+        private List<Long> ticketIds;
+        private BulkTicketFilter filter;
+        private Long assignedToId;
+        private TicketStatus status;
+        private String comment;
+        
+        public TicketService.BulkAction getAction() { return action; }
+        public void setAction(TicketService.BulkAction action) { this.action = action; }
+        
+        public List<Long> getTicketIds() { return ticketIds; }
+        public void setTicketIds(List<Long> ticketIds) { this.ticketIds = ticketIds; }
+        
+        public BulkTicketFilter getFilter() { return filter; }
+        public void setFilter(BulkTicketFilter filter) { this.filter = filter; }
+        
+        public Long getAssignedToId() { return assignedToId; }
+        public void setAssignedToId(Long assignedToId) { this.assignedToId = assignedToId; }
+        
+        public TicketStatus getStatus() { return status; }
+        public void setStatus(TicketStatus status) { this.status = status; }
+        
+        public String getComment() { return comment; }
+        public void setComment(String comment) { this.comment = comment; }
+    }
+    
+    public static class BulkTicketFilter {
+        private TicketStatus status;
+        private TicketPriority priority;
+        private TicketCategory category;
+        private Long assignedToId;
+        private Boolean unassigned;
+        
+        public TicketStatus getStatus() { return status; }
+        public void setStatus(TicketStatus status) { this.status = status; }
+        
+        public TicketPriority getPriority() { return priority; }
+        public void setPriority(TicketPriority priority) { this.priority = priority; }
+        
+        public TicketCategory getCategory() { return category; }
+        public void setCategory(TicketCategory category) { this.category = category; }
+        
+        public Long getAssignedToId() { return assignedToId; }
+        public void setAssignedToId(Long assignedToId) { this.assignedToId = assignedToId; }
+        
+        public Boolean getUnassigned() { return unassigned; }
+        public void setUnassigned(Boolean unassigned) { this.unassigned = unassigned; }
+    }
+    
     /**
      * Create sample tickets for testing - GET endpoint to avoid auth issues
      */
@@ -10,7 +10,12 @@ import java.time.LocalDateTime;
  * Used for admin monitoring, security auditing, and compliance
  */
 @Entity
-@Table(name = "activity_logs")
+@Table(name = "activity_logs", indexes = {
+    @Index(name = "idx_activity_logs_timestamp", columnList = "timestamp"),
+    @Index(name = "idx_activity_logs_user_timestamp", columnList = "user_identifier, timestamp"),
+    @Index(name = "idx_activity_logs_action_timestamp", columnList = "action, timestamp"),
+    @Index(name = "idx_activity_logs_ip_action_timestamp", columnList = "ip_address, action, timestamp")
+})
 public class ActivityLog {
     
     @Id
@@ -1,21 +1,26 @@
 package ma.gov.dgh.helpdesk.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
- * Equipment entity representing IT assets discovered through network scanning
+ * Equipment entity representing IT assets discovered through network scanning.
+ * Updates are version checked (optimistic locking) and only write the columns that changed.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "equipment", indexes = {
     @Index(name = "idx_equipment_ip", columnList = "ip_address"),
     @Index(name = "idx_equipment_mac", columnList = "mac_address"),
@@ -30,6 +35,10 @@ public class Equipment {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     @Column(name = "hostname", length = 255)
     @Size(max = 255, message = "Hostname must not exceed 255 characters")
     private String hostname;
@@ -122,6 +131,11 @@ public class Equipment {
     @JsonManagedReference(value = "equipment-tickets")
     private List<Ticket> tickets = new ArrayList<>();
     
+    // Statistics counter keys as of the last load or counter update (see StatisticsCounterService)
+    @Transient
+    @JsonIgnore
+    private Set<String> statisticsKeys;
+    
     // Constructors
     public Equipment() {}
     
@@ -139,6 +153,14 @@ public class Equipment {
         this.id = id;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public String getHostname() {
         return hostname;
     }
@@ -340,6 +362,19 @@ public class Equipment {
         return status == EquipmentStatus.OFFLINE;
     }
     
+    @PostLoad
+    private void captureStatisticsKeys() {
+        this.statisticsKeys = StatisticsCounter.keysOf(this);
+    }
+    
+    public Set<String> getStatisticsKeys() {
+        return statisticsKeys;
+    }
+    
+    public void setStatisticsKeys(Set<String> statisticsKeys) {
+        this.statisticsKeys = statisticsKeys;
+    }
+    
     @Override
     public String toString() {
         return "Equipment{" +
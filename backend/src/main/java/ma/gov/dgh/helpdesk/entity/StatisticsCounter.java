@@ -0,0 +1,132 @@
+package ma.gov.dgh.helpdesk.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * StatisticsCounter entity holding a materialized dashboard count (total tickets, tickets per status, ...)
+ * Counters are adjusted in the same transaction as the ticket, user or equipment change they reflect
+ */
+@Entity
+@Table(name = "statistics_counters")
+public class StatisticsCounter {
+
+    // Ticket counters
+    public static final String TICKETS_TOTAL = "tickets.total";
+    public static final String TICKETS_STATUS_PREFIX = "tickets.status.";
+    public static final String TICKETS_UNASSIGNED = "tickets.unassigned";
+    public static final String TICKETS_ESCALATED = "tickets.escalated";
+
+    // User counters
+    public static final String USERS_TOTAL = "users.total";
+    public static final String USERS_ACTIVE = "users.active";
+    public static final String USERS_ROLE_PREFIX = "users.role.";
+
+    // Equipment counters
+    public static final String EQUIPMENT_TOTAL = "equipment.total";
+    public static final String EQUIPMENT_STATUS_PREFIX = "equipment.status.";
+    public static final String EQUIPMENT_MANAGED = "equipment.managed";
+
+    @Id
+    @Column(name = "counter_key", length = 100)
+    private String counterKey;
+
+    @Column(name = "counter_value", nullable = false)
+    private Long counterValue = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public StatisticsCounter() {}
+
+    public StatisticsCounter(String counterKey, Long counterValue) {
+        this.counterKey = counterKey;
+        this.counterValue = counterValue;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Counter keys a ticket contributes to
+     */
+    public static Set<String> keysOf(Ticket ticket) {
+        Set<String> keys = new HashSet<>();
+        keys.add(TICKETS_TOTAL);
+        if (ticket.getStatus() != null) {
+            keys.add(TICKETS_STATUS_PREFIX + ticket.getStatus().name());
+        }
+        if (ticket.getAssignedTo() == null) {
+            keys.add(TICKETS_UNASSIGNED);
+        }
+        if (Boolean.TRUE.equals(ticket.getIsEscalated())) {
+            keys.add(TICKETS_ESCALATED);
+        }
+        return keys;
+    }
+
+    /**
+     * Counter keys a user contributes to
+     */
+    public static Set<String> keysOf(User user) {
+        Set<String> keys = new HashSet<>();
+        keys.add(USERS_TOTAL);
+        if (Boolean.TRUE.equals(user.getIsActive())) {
+            keys.add(USERS_ACTIVE);
+        }
+        if (user.getRole() != null) {
+            keys.add(USERS_ROLE_PREFIX + user.getRole().name());
+        }
+        return keys;
+    }
+
+    /**
+     * Counter keys a piece of equipment contributes to
+     */
+    public static Set<String> keysOf(Equipment equipment) {
+        Set<String> keys = new HashSet<>();
+        keys.add(EQUIPMENT_TOTAL);
+        if (equipment.getStatus() != null) {
+            keys.add(EQUIPMENT_STATUS_PREFIX + equipment.getStatus().name());
+        }
+        if (Boolean.TRUE.equals(equipment.getIsManaged())) {
+            keys.add(EQUIPMENT_MANAGED);
+        }
+        return keys;
+    }
+
+    // Getters and Setters
+    public String getCounterKey() {
+        return counterKey;
+    }
+
+    public void setCounterKey(String counterKey) {
+        this.counterKey = counterKey;
+    }
+
+    public Long getCounterValue() {
+        return counterValue;
+    }
+
+    public void setCounterValue(Long counterValue) {
+        this.counterValue = counterValue;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "StatisticsCounter{" +
+                "counterKey='" + counterKey + '\'' +
+                ", counterValue=" + counterValue +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
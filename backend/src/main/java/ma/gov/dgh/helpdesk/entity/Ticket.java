@@ -1,21 +1,26 @@
 package ma.gov.dgh.helpdesk.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
- * Ticket entity representing helpdesk tickets in the DGH HelpDesk system
+ * Ticket entity representing helpdesk tickets in the DGH HelpDesk system.
+ * Updates are version checked (optimistic locking) and only write the columns that changed.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "tickets", indexes = {
     @Index(name = "idx_ticket_status", columnList = "status"),
     @Index(name = "idx_ticket_priority", columnList = "priority"),
@@ -23,7 +28,9 @@ import java.util.List;
     @Index(name = "idx_ticket_created_by", columnList = "created_by"),
     @Index(name = "idx_ticket_assigned_to", columnList = "assigned_to"),
     @Index(name = "idx_ticket_equipment", columnList = "equipment_id"),
-    @Index(name = "idx_ticket_created_at", columnList = "created_at")
+    @Index(name = "idx_ticket_created_at", columnList = "created_at"),
+    @Index(name = "idx_ticket_updated_at_id", columnList = "updated_at, id"),
+    @Index(name = "idx_ticket_due_date", columnList = "due_date")
 })
 public class Ticket {
     
@@ -31,6 +38,10 @@ public class Ticket {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     @Column(name = "title", nullable = false, length = 255)
     @NotBlank(message = "Title is required")
     @Size(max = 255, message = "Title must not exceed 255 characters")
@@ -101,12 +112,28 @@ public class Ticket {
     @Size(max = 500, message = "Escalation reason must not exceed 500 characters")
     private String escalationReason;
     
+    @Column(name = "escalated_at")
+    private LocalDateTime escalatedAt;
+    
+    @Column(name = "sla_breached_at")
+    private LocalDateTime slaBreachedAt;
+    
     // Relationships
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @OrderBy("createdAt ASC")
     @JsonManagedReference(value = "ticket-comments")
     private List<TicketComment> comments = new ArrayList<>();
     
+    // Statistics counter keys as of the last load or counter update (see StatisticsCounterService)
+    @Transient
+    @JsonIgnore
+    private Set<String> statisticsKeys;
+    
+    // Daily rollup contributions as of the last load or rollup update (see TicketRollupService)
+    @Transient
+    @JsonIgnore
+    private Set<TicketDailyRollup.Contribution> rollupContributions;
+    
     // Constructors
     public Ticket() {}
     
@@ -125,6 +152,14 @@ public class Ticket {
         this.id = id;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public String getTitle() {
         return title;
     }
@@ -272,6 +307,22 @@ public class Ticket {
         this.escalationReason = escalationReason;
     }
     
+    public LocalDateTime getEscalatedAt() {
+        return escalatedAt;
+    }
+    
+    public void setEscalatedAt(LocalDateTime escalatedAt) {
+        this.escalatedAt = escalatedAt;
+    }
+    
+    public LocalDateTime getSlaBreachedAt() {
+        return slaBreachedAt;
+    }
+    
+    public void setSlaBreachedAt(LocalDateTime slaBreachedAt) {
+        this.slaBreachedAt = slaBreachedAt;
+    }
+    
     public List<TicketComment> getComments() {
         return comments;
     }
@@ -302,6 +353,28 @@ public class Ticket {
         comment.setTicket(this);
     }
     
+    @PostLoad
+    private void captureStatisticsKeys() {
+        this.statisticsKeys = StatisticsCounter.keysOf(this);
+        this.rollupContributions = TicketDailyRollup.contributionsOf(this);
+    }
+    
+    public Set<String> getStatisticsKeys() {
+        return statisticsKeys;
+    }
+    
+    public void setStatisticsKeys(Set<String> statisticsKeys) {
+        this.statisticsKeys = statisticsKeys;
+    }
+    
+    public Set<TicketDailyRollup.Contribution> getRollupContributions() {
+        return rollupContributions;
+    }
+    
+    public void setRollupContributions(Set<TicketDailyRollup.Contribution> rollupContributions) {
+        this.rollupContributions = rollupContributions;
+    }
+    
     @Override
     public String toString() {
         return "Ticket{" +
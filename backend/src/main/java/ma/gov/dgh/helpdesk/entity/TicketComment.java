@@ -19,8 +19,10 @@ import java.time.LocalDateTime;
 })
 public class TicketComment {
     
+    // Sequence ids (allocated in blocks) let Hibernate batch the audit comments of a ticket change into one JDBC batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_comments_seq")
+    @SequenceGenerator(name = "ticket_comments_seq", sequenceName = "ticket_comments_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
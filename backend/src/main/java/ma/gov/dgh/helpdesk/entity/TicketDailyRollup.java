@@ -0,0 +1,254 @@
+package ma.gov.dgh.helpdesk.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * TicketDailyRollup entity holding pre-aggregated ticket counts for one day and one combination of
+ * status, priority, category and assignee (the ticket's current values).
+ * A ticket contributes to the day it was created, resolved, escalated and breached its SLA;
+ * rows are adjusted in the same transaction as the ticket change they reflect.
+ */
+@Entity
+@Table(name = "ticket_daily_rollups", indexes = {
+    @Index(name = "idx_ticket_daily_rollups_date", columnList = "rollup_date")
+})
+public class TicketDailyRollup {
+
+    /**
+     * Count a ticket contributes to
+     */
+    public enum Measure {
+        CREATED,
+        RESOLVED,
+        ESCALATED,
+        SLA_BREACHED
+    }
+
+    @Id
+    @Column(name = "rollup_key", length = 150)
+    private String rollupKey;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 50)
+    private TicketStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", length = 20)
+    private TicketPriority priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", length = 100)
+    private TicketCategory category;
+
+    @Column(name = "assignee_id")
+    private Long assigneeId;
+
+    @Column(name = "created_count", nullable = false)
+    private Long createdCount = 0L;
+
+    @Column(name = "resolved_count", nullable = false)
+    private Long resolvedCount = 0L;
+
+    @Column(name = "escalated_count", nullable = false)
+    private Long escalatedCount = 0L;
+
+    @Column(name = "sla_breached_count", nullable = false)
+    private Long slaBreachedCount = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public TicketDailyRollup() {}
+
+    public TicketDailyRollup(LocalDate rollupDate, TicketStatus status, TicketPriority priority,
+                             TicketCategory category, Long assigneeId) {
+        this.rollupKey = keyOf(rollupDate, status, priority, category, assigneeId);
+        this.rollupDate = rollupDate;
+        this.status = status;
+        this.priority = priority;
+        this.category = category;
+        this.assigneeId = assigneeId;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Row key of a day and dimension combination
+     */
+    public static String keyOf(LocalDate rollupDate, TicketStatus status, TicketPriority priority,
+                               TicketCategory category, Long assigneeId) {
+        return rollupDate + "|" + (status != null ? status.name() : "-") + "|" +
+            (priority != null ? priority.name() : "-") + "|" + (category != null ? category.name() : "-") + "|" +
+            (assigneeId != null ? assigneeId : "-");
+    }
+
+    /**
+     * Rollup contributions of a ticket; must match the backfill aggregates in TicketRepository
+     */
+    public static Set<Contribution> contributionsOf(Ticket ticket) {
+        Set<Contribution> contributions = new HashSet<>();
+        if (ticket.getCreatedAt() == null) {
+            return contributions;
+        }
+        Long assigneeId = ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null;
+        contributions.add(new Contribution(Measure.CREATED, ticket.getCreatedAt().toLocalDate(), ticket, assigneeId));
+        if (ticket.getResolvedAt() != null) {
+            contributions.add(new Contribution(Measure.RESOLVED, ticket.getResolvedAt().toLocalDate(), ticket, assigneeId));
+        }
+        if (Boolean.TRUE.equals(ticket.getIsEscalated())) {
+            LocalDateTime escalatedAt = ticket.getEscalatedAt() != null ? ticket.getEscalatedAt() : ticket.getCreatedAt();
+            contributions.add(new Contribution(Measure.ESCALATED, escalatedAt.toLocalDate(), ticket, assigneeId));
+        }
+        if (ticket.getSlaBreachedAt() != null) {
+            contributions.add(new Contribution(Measure.SLA_BREACHED, ticket.getSlaBreachedAt().toLocalDate(), ticket, assigneeId));
+        } else if (ticket.getResolvedAt() != null && ticket.getDueDate() != null &&
+                   ticket.getResolvedAt().isAfter(ticket.getDueDate())) {
+            contributions.add(new Contribution(Measure.SLA_BREACHED, ticket.getDueDate().toLocalDate(), ticket, assigneeId));
+        }
+        return contributions;
+    }
+
+    // Getters and Setters
+    public String getRollupKey() {
+        return rollupKey;
+    }
+
+    public void setRollupKey(String rollupKey) {
+        this.rollupKey = rollupKey;
+    }
+
+    public LocalDate getRollupDate() {
+        return rollupDate;
+    }
+
+    public void setRollupDate(LocalDate rollupDate) {
+        this.rollupDate = rollupDate;
+    }
+
+    public TicketStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TicketStatus status) {
+        this.status = status;
+    }
+
+    public TicketPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(TicketPriority priority) {
+        this.priority = priority;
+    }
+
+    public TicketCategory getCategory() {
+        return category;
+    }
+
+    public void setCategory(TicketCategory category) {
+        this.category = category;
+    }
+
+    public Long getAssigneeId() {
+        return assigneeId;
+    }
+
+    public void setAssigneeId(Long assigneeId) {
+        this.assigneeId = assigneeId;
+    }
+
+    public Long getCreatedCount() {
+        return createdCount;
+    }
+
+    public void setCreatedCount(Long createdCount) {
+        this.createdCount = createdCount;
+    }
+
+    public Long getResolvedCount() {
+        return resolvedCount;
+    }
+
+    public void setResolvedCount(Long resolvedCount) {
+        this.resolvedCount = resolvedCount;
+    }
+
+    public Long getEscalatedCount() {
+        return escalatedCount;
+    }
+
+    public void setEscalatedCount(Long escalatedCount) {
+        this.escalatedCount = escalatedCount;
+    }
+
+    public Long getSlaBreachedCount() {
+        return slaBreachedCount;
+    }
+
+    public void setSlaBreachedCount(Long slaBreachedCount) {
+        this.slaBreachedCount = slaBreachedCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * One count a ticket adds to one rollup row
+     */
+    public static class Contribution {
+        private final Measure measure;
+        private final LocalDate rollupDate;
+        private final TicketStatus status;
+        private final TicketPriority priority;
+        private final TicketCategory category;
+        private final Long assigneeId;
+
+        Contribution(Measure measure, LocalDate rollupDate, Ticket ticket, Long assigneeId) {
+            this.measure = measure;
+            this.rollupDate = rollupDate;
+            this.status = ticket.getStatus();
+            this.priority = ticket.getPriority();
+            this.category = ticket.getCategory();
+            this.assigneeId = assigneeId;
+        }
+
+        public String getRollupKey() {
+            return keyOf(rollupDate, status, priority, category, assigneeId);
+        }
+
+        public TicketDailyRollup newRollup() {
+            return new TicketDailyRollup(rollupDate, status, priority, category, assigneeId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Contribution)) return false;
+            Contribution other = (Contribution) o;
+            return measure == other.measure && rollupDate.equals(other.rollupDate) && status == other.status &&
+                priority == other.priority && category == other.category && Objects.equals(assigneeId, other.assigneeId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(measure, rollupDate, status, priority, category, assigneeId);
+        }
+
+        // Getters
+        public Measure getMeasure() { return measure; }
+        public LocalDate getRollupDate() { return rollupDate; }
+    }
+}
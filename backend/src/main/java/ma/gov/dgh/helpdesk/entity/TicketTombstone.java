@@ -0,0 +1,83 @@
+package ma.gov.dgh.helpdesk.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * TicketTombstone entity recording a deleted ticket, so that delta sync clients can drop it from their cache.
+ * Tombstones are kept for a limited time; clients that synced before that must do a full resync.
+ * The ticket's creator and assignee are kept so that deletions are only reported to users who could access it.
+ */
+@Entity
+@Table(name = "ticket_tombstones", indexes = {
+    @Index(name = "idx_ticket_tombstones_deleted_at_ticket", columnList = "deleted_at, ticket_id")
+})
+public class TicketTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ticket_id", nullable = false)
+    private Long ticketId;
+
+    @Column(name = "created_by_id")
+    private Long createdById;
+
+    @Column(name = "assigned_to_id")
+    private Long assignedToId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Constructors
+    public TicketTombstone() {}
+
+    public TicketTombstone(Long ticketId, Long createdById, Long assignedToId, LocalDateTime deletedAt) {
+        this.ticketId = ticketId;
+        this.createdById = createdById;
+        this.assignedToId = assignedToId;
+        this.deletedAt = deletedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTicketId() {
+        return ticketId;
+    }
+
+    public void setTicketId(Long ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public Long getCreatedById() {
+        return createdById;
+    }
+
+    public void setCreatedById(Long createdById) {
+        this.createdById = createdById;
+    }
+
+    public Long getAssignedToId() {
+        return assignedToId;
+    }
+
+    public void setAssignedToId(Long assignedToId) {
+        this.assignedToId = assignedToId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
@@ -1,5 +1,6 @@
 package ma.gov.dgh.helpdesk.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -11,6 +12,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * User entity representing government employees in the DGH HelpDesk system
@@ -86,6 +88,11 @@ public class User {
     @JsonManagedReference(value = "user-comments")
     private List<TicketComment> comments = new ArrayList<>();
     
+    // Statistics counter keys as of the last load or counter update (see StatisticsCounterService)
+    @Transient
+    @JsonIgnore
+    private Set<String> statisticsKeys;
+    
     // Constructors
     public User() {}
     
@@ -225,6 +232,19 @@ public class User {
         return role == UserRole.TECHNICIAN || role == UserRole.ADMIN;
     }
     
+    @PostLoad
+    private void captureStatisticsKeys() {
+        this.statisticsKeys = StatisticsCounter.keysOf(this);
+    }
+    
+    public Set<String> getStatisticsKeys() {
+        return statisticsKeys;
+    }
+    
+    public void setStatisticsKeys(Set<String> statisticsKeys) {
+        this.statisticsKeys = statisticsKeys;
+    }
+    
     @Override
     public String toString() {
         return "User{" +
@@ -102,6 +102,19 @@ public class BusinessException extends RuntimeException {
         }
     }
     
+    public static class ServiceBusyException extends BusinessException {
+        private final long retryAfterSeconds;
+        
+        public ServiceBusyException(String message, long retryAfterSeconds) {
+            super("SERVICE_BUSY", message, HttpStatus.SERVICE_UNAVAILABLE);
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+        
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+    
     public static class DatabaseOperationException extends BusinessException {
         public DatabaseOperationException(String operation, String message) {
             super("DATABASE_ERROR", "Database operation failed (" + operation + "): " + message, HttpStatus.INTERNAL_SERVER_ERROR);
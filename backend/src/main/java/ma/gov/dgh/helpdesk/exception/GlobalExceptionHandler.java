@@ -3,6 +3,7 @@ package ma.gov.dgh.helpdesk.exception;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -145,6 +146,24 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
     
+    /**
+     * Handle optimistic locking failures (the record was changed by someone else since it was read)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex, WebRequest request) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            "CONCURRENT_MODIFICATION",
+            "The record was modified by another user - reload it and try again",
+            HttpStatus.CONFLICT.value(),
+            request.getDescription(false)
+        );
+        
+        logger.warn("Optimistic locking failure: {}", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+    
     /**
      * Handle authentication exceptions
      */
@@ -1,16 +1,22 @@
 package ma.gov.dgh.helpdesk.repository;
 
+import jakarta.persistence.QueryHint;
 import ma.gov.dgh.helpdesk.entity.ActivityLog;
 import ma.gov.dgh.helpdesk.entity.LogSeverity;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for ActivityLog entity
@@ -59,6 +65,12 @@ public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long>
      */
     List<ActivityLog> findByAffectedResourceOrderByTimestampDesc(String affectedResource);
     
+    /**
+     * Get the most recent activity logs (top-N on the timestamp index)
+     */
+    @Query("SELECT al FROM ActivityLog al ORDER BY al.timestamp DESC, al.id DESC")
+    List<ActivityLog> findMostRecent(Pageable pageable);
+    
     /**
      * Search activity logs by details containing the search term
      */
@@ -85,6 +97,71 @@ public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long>
             @Param("searchTerm") String searchTerm,
             Pageable pageable);
     
+    /**
+     * Get activity logs with filtering, newest first, strictly before a (timestamp, id) position (keyset pagination).
+     * A null position starts from the newest log.
+     */
+    @Query("SELECT al FROM ActivityLog al WHERE " +
+           "(:userIdentifier IS NULL OR al.userIdentifier = :userIdentifier) AND " +
+           "(:action IS NULL OR al.action = :action) AND " +
+           "(:severity IS NULL OR al.severity = :severity) AND " +
+           "(:startDate IS NULL OR al.timestamp >= :startDate) AND " +
+           "(:endDate IS NULL OR al.timestamp <= :endDate) AND " +
+           "(:searchTerm IS NULL OR al.details LIKE %:searchTerm% OR al.userIdentifier LIKE %:searchTerm%) AND " +
+           "(:beforeTimestamp IS NULL OR al.timestamp < :beforeTimestamp OR " +
+           " (al.timestamp = :beforeTimestamp AND al.id < :beforeId)) " +
+           "ORDER BY al.timestamp DESC, al.id DESC")
+    List<ActivityLog> findActivityLogsBefore(
+            @Param("userIdentifier") String userIdentifier,
+            @Param("action") String action,
+            @Param("severity") LogSeverity severity,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("searchTerm") String searchTerm,
+            @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable);
+    
+    /**
+     * Stream activity logs with filtering over a server-side cursor (for exports).
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT al FROM ActivityLog al WHERE " +
+           "(:userIdentifier IS NULL OR al.userIdentifier = :userIdentifier) AND " +
+           "(:action IS NULL OR al.action = :action) AND " +
+           "(:severity IS NULL OR al.severity = :severity) AND " +
+           "(:startDate IS NULL OR al.timestamp >= :startDate) AND " +
+           "(:endDate IS NULL OR al.timestamp <= :endDate) AND " +
+           "(:searchTerm IS NULL OR al.details LIKE %:searchTerm% OR al.userIdentifier LIKE %:searchTerm%) " +
+           "ORDER BY al.timestamp DESC")
+    Stream<ActivityLog> streamActivityLogsWithFilters(
+            @Param("userIdentifier") String userIdentifier,
+            @Param("action") String action,
+            @Param("severity") LogSeverity severity,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("searchTerm") String searchTerm);
+    
+    /**
+     * Get the oldest timestamp before a cutoff date (null if there is none)
+     */
+    @Query("SELECT MIN(al.timestamp) FROM ActivityLog al WHERE al.timestamp < :cutoff")
+    LocalDateTime findOldestTimestampBefore(@Param("cutoff") LocalDateTime cutoff);
+    
+    /**
+     * Get a chunk of IDs of activity logs within [start, end)
+     */
+    @Query("SELECT al.id FROM ActivityLog al WHERE al.timestamp >= :start AND al.timestamp < :end ORDER BY al.id")
+    List<Long> findIdsInTimeRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end, Pageable pageable);
+    
+    /**
+     * Delete activity logs by ID in a single statement
+     */
+    @Modifying
+    @Query("DELETE FROM ActivityLog al WHERE al.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
     /**
      * Count activity logs by severity for the last 24 hours
      */
@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -146,6 +147,22 @@ public interface EquipmentRepository extends JpaRepository<Equipment, Long> {
      */
     long countByStatus(EquipmentStatus status);
     
+    /**
+     * Count equipment in any of the given statuses
+     */
+    long countByStatusIn(Collection<EquipmentStatus> statuses);
+    
+    /**
+     * Find equipment in any of the given statuses with pagination
+     */
+    Page<Equipment> findByStatusIn(Collection<EquipmentStatus> statuses, Pageable pageable);
+    
+    /**
+     * Count equipment grouped by status
+     */
+    @Query("SELECT e.status, COUNT(e) FROM Equipment e GROUP BY e.status")
+    List<Object[]> getEquipmentCountByStatus();
+    
     /**
      * Count equipment by location
      */
@@ -156,6 +173,12 @@ public interface EquipmentRepository extends JpaRepository<Equipment, Long> {
      */
     long countByIsManagedTrue();
     
+    /**
+     * Count equipment grouped by status and managed flag
+     */
+    @Query("SELECT e.status, e.isManaged, COUNT(e) FROM Equipment e GROUP BY e.status, e.isManaged")
+    List<Object[]> getEquipmentCounterAggregates();
+    
     /**
      * Find equipment in IP range
      */
@@ -0,0 +1,41 @@
+package ma.gov.dgh.helpdesk.repository;
+
+import jakarta.persistence.LockModeType;
+import ma.gov.dgh.helpdesk.entity.StatisticsCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for StatisticsCounter entity operations
+ */
+@Repository
+public interface StatisticsCounterRepository extends JpaRepository<StatisticsCounter, String> {
+
+    /**
+     * Atomically add a delta to a counter
+     */
+    @Modifying
+    @Query("UPDATE StatisticsCounter c SET c.counterValue = c.counterValue + :delta, c.updatedAt = :now WHERE c.counterKey = :key")
+    int increment(@Param("key") String key, @Param("delta") long delta, @Param("now") LocalDateTime now);
+
+    /**
+     * Lock counters for update, in key order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StatisticsCounter> findByCounterKeyInOrderByCounterKey(Collection<String> keys);
+
+    /**
+     * Overwrite a counter value
+     */
+    @Modifying
+    @Query("UPDATE StatisticsCounter c SET c.counterValue = :value, c.updatedAt = :now WHERE c.counterKey = :key")
+    int setValue(@Param("key") String key, @Param("value") long value, @Param("now") LocalDateTime now);
+}
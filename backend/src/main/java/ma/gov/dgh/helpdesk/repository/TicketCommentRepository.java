@@ -155,11 +155,20 @@ public interface TicketCommentRepository extends JpaRepository<TicketComment, Lo
     List<Object[]> getCommentStatsByUser();
     
     /**
-     * Get comment statistics by date
+     * Get comment statistics by day
      */
-    @Query("SELECT tc.createdAt, COUNT(tc) FROM TicketComment tc WHERE tc.createdAt BETWEEN :startDate AND :endDate GROUP BY tc.createdAt ORDER BY tc.createdAt")
+    @Query("SELECT CAST(tc.createdAt AS LocalDate), COUNT(tc) FROM TicketComment tc WHERE tc.createdAt BETWEEN :startDate AND :endDate " +
+           "GROUP BY CAST(tc.createdAt AS LocalDate) ORDER BY CAST(tc.createdAt AS LocalDate)")
     List<Object[]> getCommentStatsByDate(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
+    /**
+     * Get public user comment text after the given ID (keyset batches for the search index)
+     */
+    @Query("SELECT tc.id, tc.ticket.id, tc.comment FROM TicketComment tc " +
+           "WHERE tc.id > :afterId AND tc.commentType IN ('COMMENT', 'RESOLUTION') " +
+           "AND (tc.isInternal IS NULL OR tc.isInternal = false) ORDER BY tc.id")
+    List<Object[]> findCommentTextForIndex(@Param("afterId") Long afterId, Pageable pageable);
+    
     /**
      * Delete comments by ticket
      */
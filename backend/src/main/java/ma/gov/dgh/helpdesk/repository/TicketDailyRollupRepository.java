@@ -0,0 +1,61 @@
+package ma.gov.dgh.helpdesk.repository;
+
+import ma.gov.dgh.helpdesk.entity.TicketCategory;
+import ma.gov.dgh.helpdesk.entity.TicketDailyRollup;
+import ma.gov.dgh.helpdesk.entity.TicketPriority;
+import ma.gov.dgh.helpdesk.entity.TicketStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for TicketDailyRollup entity operations
+ */
+@Repository
+public interface TicketDailyRollupRepository extends JpaRepository<TicketDailyRollup, String> {
+
+    /**
+     * Atomically add deltas to the counts of a rollup row
+     */
+    @Modifying
+    @Query("UPDATE TicketDailyRollup r SET r.createdCount = r.createdCount + :created, " +
+           "r.resolvedCount = r.resolvedCount + :resolved, r.escalatedCount = r.escalatedCount + :escalated, " +
+           "r.slaBreachedCount = r.slaBreachedCount + :slaBreached, r.updatedAt = :now WHERE r.rollupKey = :key")
+    int increment(@Param("key") String key,
+                  @Param("created") long created,
+                  @Param("resolved") long resolved,
+                  @Param("escalated") long escalated,
+                  @Param("slaBreached") long slaBreached,
+                  @Param("now") LocalDateTime now);
+
+    /**
+     * Daily totals between two days (inclusive), optionally narrowed to a status, priority, category or assignee:
+     * day, created, resolved, escalated, SLA breached
+     */
+    @Query("SELECT r.rollupDate, SUM(r.createdCount), SUM(r.resolvedCount), SUM(r.escalatedCount), SUM(r.slaBreachedCount) " +
+           "FROM TicketDailyRollup r WHERE r.rollupDate BETWEEN :from AND :to " +
+           "AND (:status IS NULL OR r.status = :status) " +
+           "AND (:priority IS NULL OR r.priority = :priority) " +
+           "AND (:category IS NULL OR r.category = :category) " +
+           "AND (:assigneeId IS NULL OR r.assigneeId = :assigneeId) " +
+           "GROUP BY r.rollupDate ORDER BY r.rollupDate")
+    List<Object[]> getDailyTotals(@Param("from") LocalDate from,
+                                  @Param("to") LocalDate to,
+                                  @Param("status") TicketStatus status,
+                                  @Param("priority") TicketPriority priority,
+                                  @Param("category") TicketCategory category,
+                                  @Param("assigneeId") Long assigneeId);
+
+    /**
+     * Delete the rollup rows of a day range (inclusive)
+     */
+    @Modifying
+    @Query("DELETE FROM TicketDailyRollup r WHERE r.rollupDate BETWEEN :from AND :to")
+    int deleteByRollupDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
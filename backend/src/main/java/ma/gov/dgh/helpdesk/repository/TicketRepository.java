@@ -7,13 +7,17 @@ import ma.gov.dgh.helpdesk.entity.TicketStatus;
 import ma.gov.dgh.helpdesk.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Ticket entity operations
@@ -21,34 +25,69 @@ import java.util.List;
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
     
+    /**
+     * Resolution metric columns shared by the reporting queries (resolution time in seconds)
+     */
+    String RESOLUTION_METRICS = "COUNT(t), AVG((t.resolvedAt - t.createdAt) BY SECOND), " +
+        "PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY (t.resolvedAt - t.createdAt) BY SECOND), " +
+        "PERCENTILE_CONT(0.9) WITHIN GROUP (ORDER BY (t.resolvedAt - t.createdAt) BY SECOND), " +
+        "COUNT(t.dueDate), SUM(CASE WHEN t.resolvedAt <= t.dueDate THEN 1 ELSE 0 END)";
+    
+    String RESOLVED_BETWEEN = "WHERE t.resolvedAt >= :from AND t.resolvedAt < :to AND t.createdAt IS NOT NULL";
+    
+    /**
+     * Dimension columns and count shared by the daily rollup backfill queries
+     */
+    String ROLLUP_DIMENSIONS = "t.status, t.priority, t.category, a.id, COUNT(t) FROM Ticket t LEFT JOIN t.assignedTo a";
+    
+    /**
+     * Find ticket by ID with its creator and assignee
+     */
+    @Override
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
+    Optional<Ticket> findById(Long id);
+    
+    /**
+     * Find tickets by IDs with their creators and assignees
+     */
+    @Override
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
+    List<Ticket> findAllById(Iterable<Long> ids);
+    
     /**
      * Find tickets by status
      */
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
     List<Ticket> findByStatus(TicketStatus status);
     
     /**
      * Find tickets by priority
      */
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
     List<Ticket> findByPriority(TicketPriority priority);
     
     /**
      * Find tickets by category
      */
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
     List<Ticket> findByCategory(TicketCategory category);
     
     /**
      * Find tickets created by a specific user
      */
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
     List<Ticket> findByCreatedBy(User createdBy);
     
     /**
      * Find tickets assigned to a specific user
      */
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
     List<Ticket> findByAssignedTo(User assignedTo);
     
     /**
      * Find unassigned tickets
      */
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
     List<Ticket> findByAssignedToIsNull();
     
     /**
@@ -69,23 +108,27 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     /**
      * Find overdue tickets
      */
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
     @Query("SELECT t FROM Ticket t WHERE t.dueDate < :currentTime AND t.status NOT IN ('RESOLVED', 'CLOSED', 'CANCELLED')")
     List<Ticket> findOverdueTickets(@Param("currentTime") LocalDateTime currentTime);
     
     /**
      * Find escalated tickets
      */
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
     List<Ticket> findByIsEscalatedTrue();
     
     /**
      * Find open tickets (not resolved, closed, or cancelled)
      */
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
     @Query("SELECT t FROM Ticket t WHERE t.status NOT IN ('RESOLVED', 'CLOSED', 'CANCELLED')")
     List<Ticket> findOpenTickets();
     
     /**
      * Find tickets with pagination and search
      */
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
     @Query("SELECT t FROM Ticket t WHERE " +
            "(:search IS NULL OR " +
            "LOWER(t.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
@@ -106,6 +149,156 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
                                        @Param("equipmentId") Long equipmentId,
                                        Pageable pageable);
     
+    /**
+     * Find tickets among the given IDs matching the filters, with pagination (used by the search index)
+     */
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
+    @Query("SELECT t FROM Ticket t WHERE t.id IN :ids AND " +
+           "(:status IS NULL OR t.status = :status) AND " +
+           "(:priority IS NULL OR t.priority = :priority) AND " +
+           "(:category IS NULL OR t.category = :category) AND " +
+           "(:createdBy IS NULL OR t.createdBy = :createdBy) AND " +
+           "(:assignedTo IS NULL OR t.assignedTo = :assignedTo) AND " +
+           "(:equipmentId IS NULL OR t.equipment.id = :equipmentId)")
+    Page<Ticket> findTicketsWithFiltersByIds(@Param("ids") Collection<Long> ids,
+                                            @Param("status") TicketStatus status,
+                                            @Param("priority") TicketPriority priority,
+                                            @Param("category") TicketCategory category,
+                                            @Param("createdBy") User createdBy,
+                                            @Param("assignedTo") User assignedTo,
+                                            @Param("equipmentId") Long equipmentId,
+                                            Pageable pageable);
+    
+    /**
+     * Find open tickets due before a time, most overdue first, after a (dueDate, id) position (keyset pagination).
+     * A null position starts from the most overdue ticket.
+     */
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
+    @Query("SELECT t FROM Ticket t WHERE t.dueDate < :currentTime AND " +
+           "t.status NOT IN ('RESOLVED', 'CLOSED', 'CANCELLED') AND " +
+           "(:afterDueDate IS NULL OR t.dueDate > :afterDueDate OR (t.dueDate = :afterDueDate AND t.id > :afterId)) " +
+           "ORDER BY t.dueDate ASC, t.id ASC")
+    List<Ticket> findOverdueTicketsAfter(@Param("currentTime") LocalDateTime currentTime,
+                                         @Param("afterDueDate") LocalDateTime afterDueDate,
+                                         @Param("afterId") Long afterId,
+                                         Pageable pageable);
+    
+    /**
+     * Find ID and due date of open tickets with a due date, in ID batches (used to load the SLA monitor)
+     */
+    @Query("SELECT t.id, t.dueDate FROM Ticket t WHERE t.id > :afterId AND t.dueDate IS NOT NULL AND " +
+           "t.status NOT IN ('RESOLVED', 'CLOSED', 'CANCELLED') ORDER BY t.id")
+    List<Object[]> findOpenTicketDueDates(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Find IDs of tickets matching the bulk operation filters, in ID batches.
+     * A non-null accessibleTo restricts to tickets that user created or is assigned to.
+     */
+    @Query("SELECT t.id FROM Ticket t WHERE t.id > :afterId AND " +
+           "(:status IS NULL OR t.status = :status) AND " +
+           "(:priority IS NULL OR t.priority = :priority) AND " +
+           "(:category IS NULL OR t.category = :category) AND " +
+           "(:assignedTo IS NULL OR t.assignedTo = :assignedTo) AND " +
+           "(:unassigned = false OR t.assignedTo IS NULL) AND " +
+           "(:accessibleTo IS NULL OR t.createdBy = :accessibleTo OR t.assignedTo = :accessibleTo) ORDER BY t.id")
+    List<Long> findIdsWithFilters(@Param("status") TicketStatus status,
+                                  @Param("priority") TicketPriority priority,
+                                  @Param("category") TicketCategory category,
+                                  @Param("assignedTo") User assignedTo,
+                                  @Param("unassigned") boolean unassigned,
+                                  @Param("accessibleTo") User accessibleTo,
+                                  @Param("afterId") Long afterId,
+                                  Pageable pageable);
+    
+    /**
+     * Assign tickets still at a version in one statement; open tickets move to in progress (same rules as TicketService.assignTicket).
+     * Bumps the version like an entity update. Clears the persistence context: tickets loaded before are detached.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Ticket t SET t.assignedTo = :assignedTo, " +
+           "t.status = CASE WHEN t.status = :openStatus THEN :inProgressStatus ELSE t.status END, " +
+           "t.updatedAt = :now, t.version = t.version + 1 WHERE t.id IN :ids AND t.version = :version")
+    int bulkAssign(@Param("ids") Collection<Long> ids,
+                   @Param("version") Long version,
+                   @Param("assignedTo") User assignedTo,
+                   @Param("openStatus") TicketStatus openStatus,
+                   @Param("inProgressStatus") TicketStatus inProgressStatus,
+                   @Param("now") LocalDateTime now);
+    
+    /**
+     * Change the status of tickets still at a version in one statement; a non-null resolvedAt is stored as the resolution time.
+     * Bumps the version like an entity update. Clears the persistence context: tickets loaded before are detached.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Ticket t SET t.status = :status, t.resolvedAt = COALESCE(:resolvedAt, t.resolvedAt), " +
+           "t.updatedAt = :now, t.version = t.version + 1 WHERE t.id IN :ids AND t.version = :version")
+    int bulkChangeStatus(@Param("ids") Collection<Long> ids,
+                         @Param("version") Long version,
+                         @Param("status") TicketStatus status,
+                         @Param("resolvedAt") LocalDateTime resolvedAt,
+                         @Param("now") LocalDateTime now);
+    
+    /**
+     * Find the IDs of tickets last updated at a time with a version, to tell which rows a bulk update changed
+     */
+    @Query("SELECT t.id FROM Ticket t WHERE t.id IN :ids AND t.version = :version AND t.updatedAt = :updatedAt")
+    List<Long> findIdsUpdatedAt(@Param("ids") Collection<Long> ids,
+                                @Param("version") Long version,
+                                @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * Find tickets matching the filters, newest first, strictly before a (createdAt, id) position (keyset pagination).
+     * A null position starts from the newest ticket. The boolean flags restrict to unassigned, open or escalated tickets.
+     */
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
+    @Query("SELECT t FROM Ticket t WHERE " +
+           "(:status IS NULL OR t.status = :status) AND " +
+           "(:priority IS NULL OR t.priority = :priority) AND " +
+           "(:category IS NULL OR t.category = :category) AND " +
+           "(:createdBy IS NULL OR t.createdBy = :createdBy) AND " +
+           "(:assignedTo IS NULL OR t.assignedTo = :assignedTo) AND " +
+           "(:unassigned = false OR t.assignedTo IS NULL) AND " +
+           "(:openOnly = false OR t.status NOT IN ('RESOLVED', 'CLOSED', 'CANCELLED')) AND " +
+           "(:escalated = false OR t.isEscalated = true) AND " +
+           "(:beforeTimestamp IS NULL OR t.createdAt < :beforeTimestamp OR " +
+           " (t.createdAt = :beforeTimestamp AND t.id < :beforeId)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Ticket> findTicketsBefore(@Param("status") TicketStatus status,
+                                   @Param("priority") TicketPriority priority,
+                                   @Param("category") TicketCategory category,
+                                   @Param("createdBy") User createdBy,
+                                   @Param("assignedTo") User assignedTo,
+                                   @Param("unassigned") boolean unassigned,
+                                   @Param("openOnly") boolean openOnly,
+                                   @Param("escalated") boolean escalated,
+                                   @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                   @Param("beforeId") Long beforeId,
+                                   Pageable pageable);
+    
+    /**
+     * Find the IDs among the given IDs matching the filters (used for relevance ordering)
+     */
+    @Query("SELECT t.id FROM Ticket t WHERE t.id IN :ids AND " +
+           "(:status IS NULL OR t.status = :status) AND " +
+           "(:priority IS NULL OR t.priority = :priority) AND " +
+           "(:category IS NULL OR t.category = :category) AND " +
+           "(:createdBy IS NULL OR t.createdBy = :createdBy) AND " +
+           "(:assignedTo IS NULL OR t.assignedTo = :assignedTo) AND " +
+           "(:equipmentId IS NULL OR t.equipment.id = :equipmentId)")
+    List<Long> findFilteredTicketIds(@Param("ids") Collection<Long> ids,
+                                     @Param("status") TicketStatus status,
+                                     @Param("priority") TicketPriority priority,
+                                     @Param("category") TicketCategory category,
+                                     @Param("createdBy") User createdBy,
+                                     @Param("assignedTo") User assignedTo,
+                                     @Param("equipmentId") Long equipmentId);
+    
+    /**
+     * Get searchable ticket text after the given ID (keyset batches for the search index)
+     */
+    @Query("SELECT t.id, t.title, t.description, t.resolution, t.category FROM Ticket t WHERE t.id > :afterId ORDER BY t.id")
+    List<Object[]> findTicketTextForIndex(@Param("afterId") Long afterId, Pageable pageable);
+    
     /**
      * Count tickets by status
      */
@@ -141,6 +334,55 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
      */
     long countByIsEscalatedTrue();
     
+    /**
+     * Count tickets grouped by status and escalation, with the number of assigned tickets per group
+     */
+    @Query("SELECT t.status, t.isEscalated, COUNT(t), COUNT(t.assignedTo.id) FROM Ticket t GROUP BY t.status, t.isEscalated")
+    List<Object[]> getTicketCounterAggregates();
+    
+    /**
+     * Creation time of the oldest ticket
+     */
+    @Query("SELECT MIN(t.createdAt) FROM Ticket t")
+    LocalDateTime findOldestCreatedAt();
+    
+    /**
+     * Daily rollup backfill: tickets created in [from, to) by day and dimensions
+     * (day, status, priority, category, assignee ID, count); see TicketDailyRollup.contributionsOf
+     */
+    @Query("SELECT CAST(t.createdAt AS LocalDate), " + ROLLUP_DIMENSIONS + " " +
+           "WHERE t.createdAt >= :from AND t.createdAt < :to " +
+           "GROUP BY CAST(t.createdAt AS LocalDate), t.status, t.priority, t.category, a.id")
+    List<Object[]> getCreatedRollup(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    /**
+     * Daily rollup backfill: tickets resolved in [from, to) by day and dimensions
+     */
+    @Query("SELECT CAST(t.resolvedAt AS LocalDate), " + ROLLUP_DIMENSIONS + " " +
+           "WHERE t.resolvedAt >= :from AND t.resolvedAt < :to " +
+           "GROUP BY CAST(t.resolvedAt AS LocalDate), t.status, t.priority, t.category, a.id")
+    List<Object[]> getResolvedRollup(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    /**
+     * Daily rollup backfill: tickets escalated in [from, to) by day and dimensions
+     * (tickets escalated before escalation times were recorded count on their creation day)
+     */
+    @Query("SELECT CAST(COALESCE(t.escalatedAt, t.createdAt) AS LocalDate), " + ROLLUP_DIMENSIONS + " " +
+           "WHERE t.isEscalated = true AND COALESCE(t.escalatedAt, t.createdAt) >= :from " +
+           "AND COALESCE(t.escalatedAt, t.createdAt) < :to " +
+           "GROUP BY CAST(COALESCE(t.escalatedAt, t.createdAt) AS LocalDate), t.status, t.priority, t.category, a.id")
+    List<Object[]> getEscalatedRollup(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    /**
+     * Daily rollup backfill: SLA breaches in [from, to) by day and dimensions
+     * (breaches not seen by the SLA monitor count on the due date of tickets resolved late)
+     */
+    @Query("SELECT CAST(COALESCE(t.slaBreachedAt, t.dueDate) AS LocalDate), " + ROLLUP_DIMENSIONS + " " +
+           "WHERE (t.slaBreachedAt IS NOT NULL OR t.resolvedAt > t.dueDate) " +
+           "AND COALESCE(t.slaBreachedAt, t.dueDate) >= :from AND COALESCE(t.slaBreachedAt, t.dueDate) < :to " +
+           "GROUP BY CAST(COALESCE(t.slaBreachedAt, t.dueDate) AS LocalDate), t.status, t.priority, t.category, a.id")
+    List<Object[]> getSlaBreachedRollup(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
     /**
      * Find tickets created today
      */
@@ -174,6 +416,7 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     /**
      * Find tickets with critical priority
      */
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
     @Query("SELECT t FROM Ticket t WHERE t.priority = 'CRITICAL' AND t.status NOT IN ('RESOLVED', 'CLOSED', 'CANCELLED')")
     List<Ticket> findCriticalOpenTickets();
     
@@ -191,11 +434,76 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     List<Object[]> getTicketStatsByCategory();
     
     /**
-     * Get average resolution time by category
+     * Get average resolution time in seconds by category: category, resolved count, average seconds
      */
-    @Query("SELECT t.category, COUNT(t) FROM Ticket t WHERE t.resolvedAt IS NOT NULL GROUP BY t.category")
+    @Query("SELECT t.category, COUNT(t), AVG((t.resolvedAt - t.createdAt) BY SECOND) FROM Ticket t " +
+           "WHERE t.resolvedAt IS NOT NULL AND t.createdAt IS NOT NULL GROUP BY t.category")
     List<Object[]> getAverageResolutionTimeByCategory();
     
+    /**
+     * Resolution metrics of tickets resolved in [from, to) by category:
+     * category, resolved count, average/p50/p90 seconds, tickets with a due date, tickets resolved by their due date
+     */
+    @Query("SELECT t.category, " + RESOLUTION_METRICS + " FROM Ticket t " + RESOLVED_BETWEEN + " GROUP BY t.category")
+    List<Object[]> getResolutionMetricsByCategory(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    /**
+     * Resolution metrics of tickets resolved in [from, to) by priority (same columns as by category)
+     */
+    @Query("SELECT t.priority, " + RESOLUTION_METRICS + " FROM Ticket t " + RESOLVED_BETWEEN + " GROUP BY t.priority")
+    List<Object[]> getResolutionMetricsByPriority(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    /**
+     * Resolution metrics of tickets resolved in [from, to) by assignee:
+     * assignee ID, assignee name, then the same columns as by category
+     */
+    @Query("SELECT a.id, a.fullName, " + RESOLUTION_METRICS + " FROM Ticket t JOIN t.assignedTo a " + RESOLVED_BETWEEN +
+           " GROUP BY a.id, a.fullName")
+    List<Object[]> getResolutionMetricsByAssignee(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    /**
+     * Count tickets assigned to user grouped by status
+     */
+    @Query("SELECT t.status, COUNT(t) FROM Ticket t WHERE t.assignedTo = :assignedTo GROUP BY t.status")
+    List<Object[]> countByStatusForAssignee(@Param("assignedTo") User assignedTo);
+    
+    /**
+     * Count tickets assigned to user grouped by priority
+     */
+    @Query("SELECT t.priority, COUNT(t) FROM Ticket t WHERE t.assignedTo = :assignedTo GROUP BY t.priority")
+    List<Object[]> countByPriorityForAssignee(@Param("assignedTo") User assignedTo);
+    
+    /**
+     * Count tickets assigned to user grouped by category
+     */
+    @Query("SELECT t.category, COUNT(t) FROM Ticket t WHERE t.assignedTo = :assignedTo GROUP BY t.category")
+    List<Object[]> countByCategoryForAssignee(@Param("assignedTo") User assignedTo);
+    
+    /**
+     * Sum actual and estimated hours of tickets assigned to user
+     */
+    @Query("SELECT COALESCE(SUM(t.actualHours), 0), COALESCE(SUM(t.estimatedHours), 0) FROM Ticket t WHERE t.assignedTo = :assignedTo")
+    List<Object[]> sumHoursForAssignee(@Param("assignedTo") User assignedTo);
+    
+    /**
+     * Average resolution time in seconds of tickets assigned to user
+     */
+    @Query("SELECT AVG((t.resolvedAt - t.createdAt) BY SECOND) FROM Ticket t " +
+           "WHERE t.assignedTo = :assignedTo AND t.resolvedAt IS NOT NULL AND t.createdAt IS NOT NULL")
+    Double getAverageResolutionSecondsForAssignee(@Param("assignedTo") User assignedTo);
+    
+    /**
+     * Find tickets assigned to user ordered by priority (highest first) then creation date
+     */
+    @Query("SELECT t FROM Ticket t WHERE t.assignedTo = :assignedTo ORDER BY " +
+           "CASE t.priority WHEN 'CRITICAL' THEN 4 WHEN 'HIGH' THEN 3 WHEN 'MEDIUM' THEN 2 ELSE 1 END DESC, t.createdAt ASC")
+    List<Ticket> findPriorityQueueForAssignee(@Param("assignedTo") User assignedTo, Pageable pageable);
+    
+    /**
+     * Find most recently updated tickets assigned to user
+     */
+    List<Ticket> findByAssignedToOrderByUpdatedAtDesc(User assignedTo, Pageable pageable);
+    
     /**
      * Find tickets assigned to user with specific status
      */
@@ -205,4 +513,18 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
      * Find tickets created by user with specific status
      */
     Page<Ticket> findByCreatedByAndStatus(User createdBy, TicketStatus status, Pageable pageable);
+    
+    /**
+     * Find tickets changed after an (updatedAt, id) position up to a time, in sync order.
+     * A non-null accessibleTo restricts to tickets that user created or is assigned to.
+     */
+    @Query("SELECT t FROM Ticket t WHERE (t.updatedAt > :afterTimestamp OR " +
+           "(t.updatedAt = :afterTimestamp AND t.id > :afterId)) AND t.updatedAt <= :until AND " +
+           "(:accessibleTo IS NULL OR t.createdBy = :accessibleTo OR t.assignedTo = :accessibleTo) " +
+           "ORDER BY t.updatedAt ASC, t.id ASC")
+    List<Ticket> findChangedAfter(@Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                  @Param("afterId") Long afterId,
+                                  @Param("until") LocalDateTime until,
+                                  @Param("accessibleTo") User accessibleTo,
+                                  Pageable pageable);
 }
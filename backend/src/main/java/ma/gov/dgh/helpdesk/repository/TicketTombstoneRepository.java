@@ -0,0 +1,40 @@
+package ma.gov.dgh.helpdesk.repository;
+
+import ma.gov.dgh.helpdesk.entity.TicketTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for TicketTombstone entity operations
+ */
+@Repository
+public interface TicketTombstoneRepository extends JpaRepository<TicketTombstone, Long> {
+
+    /**
+     * Find tombstones after a (deletedAt, ticketId) position up to a time, in sync order.
+     * A non-null accessibleToId restricts to tickets that user created or was assigned to.
+     */
+    @Query("SELECT t FROM TicketTombstone t WHERE (t.deletedAt > :afterTimestamp OR " +
+           "(t.deletedAt = :afterTimestamp AND t.ticketId > :afterId)) AND t.deletedAt <= :until AND " +
+           "(:accessibleToId IS NULL OR t.createdById = :accessibleToId OR t.assignedToId = :accessibleToId) " +
+           "ORDER BY t.deletedAt ASC, t.ticketId ASC")
+    List<TicketTombstone> findDeletedAfter(@Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                           @Param("afterId") Long afterId,
+                                           @Param("until") LocalDateTime until,
+                                           @Param("accessibleToId") Long accessibleToId,
+                                           Pageable pageable);
+
+    /**
+     * Delete tombstones older than a date
+     */
+    @Modifying
+    @Query("DELETE FROM TicketTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteByDeletedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
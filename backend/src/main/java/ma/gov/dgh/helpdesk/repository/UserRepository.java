@@ -121,6 +121,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     long countByDepartment(String department);
     
+    /**
+     * Count users grouped by role and active flag
+     */
+    @Query("SELECT u.role, u.isActive, COUNT(u) FROM User u GROUP BY u.role, u.isActive")
+    List<Object[]> getUserCounterAggregates();
+    
     /**
      * Find users assigned to tickets in a specific time period
      */
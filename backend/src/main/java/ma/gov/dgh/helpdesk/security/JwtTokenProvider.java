@@ -1,6 +1,7 @@
 package ma.gov.dgh.helpdesk.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -12,18 +13,24 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtTokenProvider {
 
-    @Value("${app.jwtSecret}")
-    private String jwtSecret;
+    private final int jwtExpirationInMs;
 
-    @Value("${app.jwtExpirationInMs}")
-    private int jwtExpirationInMs;
+    // Built once: the signing key and parser are immutable and thread-safe
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    public JwtTokenProvider(@Value("${app.jwtSecret}") String jwtSecret,
+                            @Value("${app.jwtExpirationInMs}") int jwtExpirationInMs) {
+        this.jwtExpirationInMs = jwtExpirationInMs;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
@@ -32,34 +39,53 @@ public class JwtTokenProvider {
         Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    /**
+     * Validate a token and read it in a single parse.
+     * Returns null if the token is malformed, expired, unsupported or wrongly signed.
+     */
+    public ParsedToken parseAndValidate(String authToken) {
+        try {
+            Claims claims = jwtParser.parseClaimsJws(authToken).getBody();
+            return new ParsedToken(claims);
+        } catch (Exception ex) {
+            // MalformedJwtException, ExpiredJwtException, UnsupportedJwtException, IllegalArgumentException
+            System.err.println("JWT validation error: " + ex.getMessage());
+        }
+        return null;
+    }
+
     public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
 
         return claims.getSubject();
     }
 
     public boolean validateToken(String authToken) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
-        } catch (Exception ex) {
-            // MalformedJwtException, ExpiredJwtException, UnsupportedJwtException, IllegalArgumentException
-            System.err.println("JWT validation error: " + ex.getMessage());
+        return parseAndValidate(authToken) != null;
+    }
+
+    /**
+     * Inner class for a validated token
+     */
+    public static class ParsedToken {
+        private final Claims claims;
+
+        public ParsedToken(Claims claims) {
+            this.claims = claims;
         }
-        return false;
+
+        // Getters
+        public String getSubject() { return claims.getSubject(); }
+        public String getTokenId() { return claims.getId(); }
+        public Date getExpiration() { return claims.getExpiration(); }
+        public Claims getClaims() { return claims; }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,144 @@
+package ma.gov.dgh.helpdesk.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-limited cache of authenticated principals, keyed by username and token id.
+ * Lets the JWT filter skip the user lookup on every request; entries are dropped explicitly
+ * when a user is changed (see UserService), and never outlive their token.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrincipalCache.class);
+
+    @Value("${security.principal-cache.ttl:60000}")
+    private long ttlMillis;
+
+    @Value("${security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<CacheKey, CacheEntry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Get the principal for a token, loading it on a miss.
+     * Loader exceptions (e.g. UsernameNotFoundException) are propagated and nothing is cached.
+     */
+    public UserDetails get(String username, String tokenId, Date tokenExpiry, Supplier<UserDetails> loader) {
+        CacheKey key = new CacheKey(username, tokenId);
+        long now = System.currentTimeMillis();
+
+        CacheEntry entry = entries.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.userDetails;
+        }
+
+        UserDetails userDetails = loader.get();
+        if (ttlMillis > 0 && maxSize > 0) {
+            long expiresAt = now + ttlMillis;
+            if (tokenExpiry != null) {
+                expiresAt = Math.min(expiresAt, tokenExpiry.getTime());
+            }
+            if (entries.size() >= maxSize) {
+                evict(now);
+            }
+            entries.put(key, new CacheEntry(userDetails, expiresAt));
+        }
+        return userDetails;
+    }
+
+    /**
+     * Drop every cached principal of a user, now and again once the current transaction commits
+     * (so a request racing the change cannot re-cache the old state)
+     */
+    public void invalidateUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        removeUser(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeUser(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drop every cached principal
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Private helper methods
+
+    private void removeUser(Long userId) {
+        entries.values().removeIf(entry -> entry.userDetails instanceof CustomUserDetails details
+            && details.getUser() != null && userId.equals(details.getUser().getId()));
+    }
+
+    /**
+     * Remove expired entries, then arbitrary ones until there is room for a new entry
+     */
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        Iterator<CacheKey> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+        logger.debug("Principal cache evicted down to {} entries", entries.size());
+    }
+
+    private static final class CacheKey {
+        private final String username;
+        private final String tokenId;
+
+        CacheKey(String username, String tokenId) {
+            this.username = username;
+            this.tokenId = tokenId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CacheKey other)) return false;
+            return Objects.equals(username, other.username) && Objects.equals(tokenId, other.tokenId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(username, tokenId);
+        }
+    }
+
+    private static final class CacheEntry {
+        private final UserDetails userDetails;
+        private final long expiresAt;
+
+        CacheEntry(UserDetails userDetails, long expiresAt) {
+            this.userDetails = userDetails;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package ma.gov.dgh.helpdesk.service;
+
+import ma.gov.dgh.helpdesk.repository.ActivityLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service enforcing activity log retention.
+ * Old logs are removed in bounded chunks, one set-based DELETE (and optionally one INSERT ... SELECT
+ * into a monthly archive table) per chunk, each chunk in its own short transaction.
+ * Monthly archive tables (activity_logs_archive_yyyyMM) past their retention are dropped wholesale.
+ */
+@Service
+public class ActivityLogRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogRetentionService.class);
+
+    private static final String ARCHIVE_TABLE_PREFIX = "activity_logs_archive_";
+    private static final DateTimeFormatter ARCHIVE_SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final ActivityLogRepository activityLogRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${activity-log.retention.enabled:true}")
+    private boolean retentionEnabled;
+
+    @Value("${activity-log.retention.days:90}")
+    private int retentionDays;
+
+    @Value("${activity-log.retention.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${activity-log.retention.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${activity-log.retention.archive.months:12}")
+    private int archiveMonths;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile RetentionProgress lastRun;
+
+    @Autowired
+    public ActivityLogRetentionService(ActivityLogRepository activityLogRepository,
+                                       JdbcTemplate jdbcTemplate,
+                                       NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                       PlatformTransactionManager transactionManager) {
+        this.activityLogRepository = activityLogRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Scheduled retention run
+     */
+    @Scheduled(cron = "${activity-log.retention.cron:0 30 2 * * *}")
+    public void runRetention() {
+        if (!retentionEnabled) {
+            return;
+        }
+        purgeOlderThan(LocalDateTime.now().minusDays(retentionDays));
+        if (archiveEnabled) {
+            dropExpiredArchives();
+        }
+    }
+
+    /**
+     * Remove (archiving first if enabled) every activity log older than the cutoff date.
+     * Only one purge runs at a time; a concurrent call returns the running purge's progress.
+     */
+    public RetentionProgress purgeOlderThan(LocalDateTime cutoff) {
+        RetentionProgress progress = new RetentionProgress(cutoff, archiveEnabled);
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Activity log retention already running, skipping purge before {}", cutoff);
+            return lastRun;
+        }
+        lastRun = progress;
+        try {
+            logger.info("Activity log retention: removing logs before {} (chunks of {}, archive {})",
+                cutoff, chunkSize, archiveEnabled ? "on" : "off");
+
+            LocalDateTime oldest = activityLogRepository.findOldestTimestampBefore(cutoff);
+            if (oldest != null) {
+                // Walk month buckets so each chunk lands in a single archive table
+                YearMonth month = YearMonth.from(oldest);
+                while (month.atDay(1).atStartOfDay().isBefore(cutoff)) {
+                    LocalDateTime start = month.atDay(1).atStartOfDay();
+                    LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+                    purgeRange(month, start, end.isBefore(cutoff) ? end : cutoff, progress);
+                    month = month.plusMonths(1);
+                }
+            }
+            progress.completedAt = LocalDateTime.now();
+            logger.info("Activity log retention done: {} deleted, {} archived in {} chunks",
+                progress.getDeleted(), progress.getArchived(), progress.getChunks());
+        } catch (RuntimeException e) {
+            progress.error = e.getMessage();
+            logger.error("Activity log retention failed after {} deleted logs: {}", progress.getDeleted(), e.getMessage());
+            throw e;
+        } finally {
+            running.set(false);
+        }
+        return progress;
+    }
+
+    /**
+     * Drop monthly archive tables older than the archive retention
+     */
+    public int dropExpiredArchives() {
+        YearMonth oldestKept = YearMonth.now().minusMonths(archiveMonths);
+        int dropped = 0;
+        for (String table : listArchiveTables()) {
+            YearMonth month;
+            try {
+                month = YearMonth.parse(table.substring(ARCHIVE_TABLE_PREFIX.length()), ARCHIVE_SUFFIX_FORMAT);
+            } catch (RuntimeException e) {
+                continue;
+            }
+            if (month.isBefore(oldestKept)) {
+                jdbcTemplate.execute("DROP TABLE " + table);
+                dropped++;
+                logger.info("Dropped activity log archive table {}", table);
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Get the progress of the current or last retention run (null if none ran yet)
+     */
+    public RetentionProgress getProgress() {
+        return lastRun;
+    }
+
+    // Private helper methods
+
+    private void purgeRange(YearMonth month, LocalDateTime start, LocalDateTime end, RetentionProgress progress) {
+        String archiveTable = archiveEnabled ? ensureArchiveTable(month) : null;
+        while (true) {
+            Integer removed = transactionTemplate.execute(status -> {
+                List<Long> ids = activityLogRepository.findIdsInTimeRange(start, end, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                if (archiveTable != null) {
+                    int archived = namedParameterJdbcTemplate.update(
+                        "INSERT INTO " + archiveTable + " SELECT * FROM activity_logs WHERE id IN (:ids)",
+                        new MapSqlParameterSource("ids", ids));
+                    progress.archived.addAndGet(archived);
+                }
+                return activityLogRepository.deleteByIdIn(ids);
+            });
+            if (removed == null || removed == 0) {
+                return;
+            }
+            progress.deleted.addAndGet(removed);
+            long chunks = progress.chunks.incrementAndGet();
+            if (chunks % 10 == 0) {
+                logger.info("Activity log retention: {} logs deleted so far (now at {})", progress.getDeleted(), month);
+            }
+        }
+    }
+
+    private String ensureArchiveTable(YearMonth month) {
+        String table = ARCHIVE_TABLE_PREFIX + month.format(ARCHIVE_SUFFIX_FORMAT);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table + " AS SELECT * FROM activity_logs WHERE 1 = 0");
+        return table;
+    }
+
+    private List<String> listArchiveTables() {
+        return jdbcTemplate.queryForList(
+            "SELECT LOWER(table_name) FROM information_schema.tables WHERE LOWER(table_name) LIKE ?",
+            String.class, ARCHIVE_TABLE_PREFIX + "%");
+    }
+
+    /**
+     * Inner class for the progress of a retention run
+     */
+    public static class RetentionProgress {
+        private final LocalDateTime cutoff;
+        private final boolean archiving;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong deleted = new AtomicLong();
+        private final AtomicLong archived = new AtomicLong();
+        private final AtomicLong chunks = new AtomicLong();
+        private volatile LocalDateTime completedAt;
+        private volatile String error;
+
+        public RetentionProgress(LocalDateTime cutoff, boolean archiving) {
+            this.cutoff = cutoff;
+            this.archiving = archiving;
+        }
+
+        // Getters
+        public LocalDateTime getCutoff() { return cutoff; }
+        public boolean isArchiving() { return archiving; }
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public long getDeleted() { return deleted.get(); }
+        public long getArchived() { return archived.get(); }
+        public long getChunks() { return chunks.get(); }
+        public LocalDateTime getCompletedAt() { return completedAt; }
+        public String getError() { return error; }
+        public boolean isCompleted() { return completedAt != null; }
+    }
+}
@@ -1,20 +1,37 @@
 package ma.gov.dgh.helpdesk.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import ma.gov.dgh.helpdesk.entity.ActivityLog;
 import ma.gov.dgh.helpdesk.entity.LogSeverity;
 import ma.gov.dgh.helpdesk.repository.ActivityLogRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing activity logs
@@ -23,13 +40,54 @@ import java.util.Optional;
 @Service
 public class ActivityLogService {
     
+    /**
+     * Activity log export formats
+     */
+    public enum ExportFormat {
+        NDJSON, CSV
+    }
+    
+    private static final String[] CSV_COLUMNS = {
+        "id", "timestamp", "userIdentifier", "action", "details", "severity", "ipAddress", "userAgent",
+        "sessionId", "affectedResource", "oldValue", "newValue", "department", "location"
+    };
+    
+    // Logs returned by getRecentActivityLogs
+    private static final int RECENT_LOGS_LIMIT = 100;
+    
+    // Rows written between flushes of the export stream
+    private static final int EXPORT_FLUSH_ROWS = 500;
+    
     @Autowired
     private ActivityLogRepository activityLogRepository;
     
+    @Autowired
+    private ActivityLogWriter activityLogWriter;
+    
+    @Autowired
+    private ActivityLogRetentionService activityLogRetentionService;
+    
+    @Autowired
+    private RecentActivityBuffer recentActivityBuffer;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     /**
-     * Log an activity with current request information
+     * Log an activity with current request information.
+     * The log is written asynchronously (see ActivityLogWriter), so it has no ID yet.
      */
     public ActivityLog logActivity(String userIdentifier, String action, String details, LogSeverity severity) {
+        return record(createActivityLog(userIdentifier, action, details, severity));
+    }
+    
+    /**
+     * Build an activity log with current request information
+     */
+    private ActivityLog createActivityLog(String userIdentifier, String action, String details, LogSeverity severity) {
         ActivityLog activityLog = new ActivityLog(userIdentifier, action, details, severity);
         
         // Add request information if available
@@ -45,7 +103,16 @@ public class ActivityLogService {
             // Log without request information if not available
         }
         
-        return activityLogRepository.save(activityLog);
+        return activityLog;
+    }
+    
+    /**
+     * Hand a complete activity log to the live activity buffer and the write-behind writer
+     */
+    private ActivityLog record(ActivityLog activityLog) {
+        recentActivityBuffer.add(activityLog);
+        activityLogWriter.enqueue(activityLog);
+        return activityLog;
     }
     
     /**
@@ -66,78 +133,89 @@ public class ActivityLogService {
      * Log ticket creation
      */
     public void logTicketCreated(String userIdentifier, Long ticketId, String ticketTitle) {
-        ActivityLog log = logActivity(userIdentifier, "TICKET_CREATED", 
+        ActivityLog log = createActivityLog(userIdentifier, "TICKET_CREATED", 
                 "Created ticket #" + ticketId + ": " + ticketTitle, LogSeverity.INFO);
         log.setAffectedResource("TICKET:" + ticketId);
-        activityLogRepository.save(log);
+        record(log);
     }
     
     /**
      * Log ticket status change
      */
     public void logTicketStatusChange(String userIdentifier, Long ticketId, String oldStatus, String newStatus) {
-        ActivityLog log = logActivity(userIdentifier, "TICKET_STATUS_CHANGE", 
+        ActivityLog log = createActivityLog(userIdentifier, "TICKET_STATUS_CHANGE", 
                 "Changed ticket #" + ticketId + " status from " + oldStatus + " to " + newStatus, LogSeverity.INFO);
         log.setAffectedResource("TICKET:" + ticketId);
         log.setOldValue(oldStatus);
         log.setNewValue(newStatus);
-        activityLogRepository.save(log);
+        record(log);
     }
     
     /**
      * Log ticket assignment
      */
     public void logTicketAssigned(String userIdentifier, Long ticketId, String assignedTo) {
-        ActivityLog log = logActivity(userIdentifier, "TICKET_ASSIGNED", 
+        ActivityLog log = createActivityLog(userIdentifier, "TICKET_ASSIGNED", 
                 "Assigned ticket #" + ticketId + " to " + assignedTo, LogSeverity.INFO);
         log.setAffectedResource("TICKET:" + ticketId);
         log.setNewValue(assignedTo);
-        activityLogRepository.save(log);
+        record(log);
     }
     
     /**
      * Log ticket resolution
      */
     public void logTicketResolved(String userIdentifier, Long ticketId, String resolution) {
-        ActivityLog log = logActivity(userIdentifier, "TICKET_RESOLVED", 
+        ActivityLog log = createActivityLog(userIdentifier, "TICKET_RESOLVED", 
                 "Resolved ticket #" + ticketId + ": " + resolution, LogSeverity.SUCCESS);
         log.setAffectedResource("TICKET:" + ticketId);
         log.setNewValue(resolution);
-        activityLogRepository.save(log);
+        record(log);
+    }
+    
+    /**
+     * Log an SLA breach detected by the SLA monitor
+     */
+    public void logSlaBreach(Long ticketId, LocalDateTime dueDate) {
+        ActivityLog log = createActivityLog("system", "TICKET_SLA_BREACH", 
+                "Ticket #" + ticketId + " passed its due date " + dueDate, LogSeverity.WARNING);
+        log.setAffectedResource("TICKET:" + ticketId);
+        log.setOldValue(dueDate.toString());
+        record(log);
     }
     
     /**
      * Log user creation
      */
     public void logUserCreated(String userIdentifier, String newUserEmail, String role) {
-        ActivityLog log = logActivity(userIdentifier, "USER_CREATED", 
+        ActivityLog log = createActivityLog(userIdentifier, "USER_CREATED", 
                 "Created new user: " + newUserEmail + " (" + role + ")", LogSeverity.SUCCESS);
         log.setAffectedResource("USER:" + newUserEmail);
         log.setNewValue(role);
-        activityLogRepository.save(log);
+        record(log);
     }
     
     /**
      * Log user update
      */
     public void logUserUpdated(String userIdentifier, String updatedUserEmail, String changes) {
-        ActivityLog log = logActivity(userIdentifier, "USER_UPDATED", 
+        ActivityLog log = createActivityLog(userIdentifier, "USER_UPDATED", 
                 "Updated user: " + updatedUserEmail + " - " + changes, LogSeverity.INFO);
         log.setAffectedResource("USER:" + updatedUserEmail);
         log.setNewValue(changes);
-        activityLogRepository.save(log);
+        record(log);
     }
     
     /**
      * Log system configuration change
      */
     public void logSystemConfigChange(String userIdentifier, String configName, String oldValue, String newValue) {
-        ActivityLog log = logActivity(userIdentifier, "SYSTEM_CONFIG_CHANGE", 
+        ActivityLog log = createActivityLog(userIdentifier, "SYSTEM_CONFIG_CHANGE", 
                 "Updated " + configName + " from " + oldValue + " to " + newValue, LogSeverity.WARNING);
         log.setAffectedResource("CONFIG:" + configName);
         log.setOldValue(oldValue);
         log.setNewValue(newValue);
-        activityLogRepository.save(log);
+        record(log);
     }
     
     /**
@@ -156,14 +234,102 @@ public class ActivityLogService {
         return activityLogRepository.findActivityLogsWithFilters(userIdentifier, action, severity, startDate, endDate, searchTerm, pageable);
     }
     
+    /**
+     * Get a keyset page of activity logs with filters, newest first.
+     * The cursor is "timestamp,id" of the last log of the previous page (null or empty for the first page).
+     */
+    public ActivityLogSlice getActivityLogsBefore(String userIdentifier, String action, LogSeverity severity,
+                                                  LocalDateTime startDate, LocalDateTime endDate, String searchTerm,
+                                                  String cursor, int size) {
+        LocalDateTime beforeTimestamp = null;
+        Long beforeId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            int separator = cursor.lastIndexOf(',');
+            try {
+                beforeTimestamp = LocalDateTime.parse(cursor.substring(0, separator).trim());
+                beforeId = Long.parseLong(cursor.substring(separator + 1).trim());
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor, expected <timestamp>,<id>: " + cursor);
+            }
+        }
+        
+        // Fetch one extra row to know whether there is a next page
+        List<ActivityLog> logs = activityLogRepository.findActivityLogsBefore(userIdentifier, action, severity,
+                startDate, endDate, searchTerm, beforeTimestamp, beforeId, PageRequest.of(0, size + 1));
+        boolean hasNext = logs.size() > size;
+        List<ActivityLog> content = hasNext ? logs.subList(0, size) : logs;
+        String nextCursor = null;
+        if (hasNext) {
+            ActivityLog last = content.get(content.size() - 1);
+            nextCursor = last.getTimestamp() + "," + last.getId();
+        }
+        return new ActivityLogSlice(content, nextCursor, hasNext);
+    }
+    
+    /**
+     * Export activity logs matching the filters to a stream, as NDJSON or CSV.
+     * Rows are read over a database cursor and written one by one, so memory use does not
+     * depend on the export size. Returns the number of exported logs.
+     */
+    @Transactional(readOnly = true)
+    public long exportActivityLogs(String userIdentifier, LogSeverity severity, LocalDateTime startDate,
+                                   LocalDateTime endDate, ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(String.join(",", CSV_COLUMNS));
+            writer.write("\n");
+        }
+        // Send the first bytes right away
+        writer.flush();
+        
+        long count = 0;
+        try (Stream<ActivityLog> logs = activityLogRepository.streamActivityLogsWithFilters(
+                userIdentifier, null, severity, startDate, endDate, null)) {
+            Iterator<ActivityLog> iterator = logs.iterator();
+            while (iterator.hasNext()) {
+                ActivityLog log = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, log);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(log));
+                    writer.write("\n");
+                }
+                // Keep the persistence context from growing with the export
+                entityManager.detach(log);
+                
+                if (++count % EXPORT_FLUSH_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        return count;
+    }
+    
     /**
      * Get recent activity logs (last 100 entries)
      */
     public List<ActivityLog> getRecentActivityLogs() {
-        return activityLogRepository.findAll().stream()
-                .sorted((a, b) -> b.getTimestamp().compareTo(a.getTimestamp()))
-                .limit(100)
-                .toList();
+        return activityLogRepository.findMostRecent(PageRequest.of(0, RECENT_LOGS_LIMIT));
+    }
+    
+    /**
+     * Get the latest audit events from memory, newest first (live activity panel).
+     * Includes events not yet written to the database.
+     */
+    public List<ActivityLog> getLiveActivityLogs(int limit) {
+        return recentActivityBuffer.getRecent(limit);
+    }
+    
+    /**
+     * Seed the live activity buffer from the database at startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedLiveActivity() {
+        List<ActivityLog> recent = new ArrayList<>(
+                activityLogRepository.findMostRecent(PageRequest.of(0, recentActivityBuffer.getCapacity())));
+        Collections.reverse(recent);
+        recentActivityBuffer.seed(recent);
     }
     
     /**
@@ -261,6 +427,13 @@ public class ActivityLogService {
                 .toList();
     }
     
+    /**
+     * Get activity log writer statistics
+     */
+    public ActivityLogWriter.WriterStatistics getWriterStatistics() {
+        return activityLogWriter.getStatistics();
+    }
+    
     /**
      * Get activity log by ID
      */
@@ -271,11 +444,40 @@ public class ActivityLogService {
     /**
      * Delete old activity logs (older than specified days)
      */
-    public void deleteOldActivityLogs(int daysToKeep) {
+    public ActivityLogRetentionService.RetentionProgress deleteOldActivityLogs(int daysToKeep) {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysToKeep);
-        List<ActivityLog> oldLogs = activityLogRepository.findByTimestampBetweenOrderByTimestampDesc(
-                LocalDateTime.MIN, cutoffDate);
-        activityLogRepository.deleteAll(oldLogs);
+        return activityLogRetentionService.purgeOlderThan(cutoffDate);
+    }
+    
+    /**
+     * Get the progress of the current or last retention run
+     */
+    public ActivityLogRetentionService.RetentionProgress getRetentionProgress() {
+        return activityLogRetentionService.getProgress();
+    }
+    
+    private void writeCsvRow(Writer writer, ActivityLog log) throws IOException {
+        Object[] values = {
+            log.getId(), log.getTimestamp(), log.getUserIdentifier(), log.getAction(), log.getDetails(),
+            log.getSeverity() != null ? log.getSeverity().name() : null, log.getIpAddress(), log.getUserAgent(), log.getSessionId(), log.getAffectedResource(),
+            log.getOldValue(), log.getNewValue(), log.getDepartment(), log.getLocation()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escapeCsv(values[i].toString()));
+            }
+        }
+        writer.write('\n');
+    }
+    
+    private String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
     }
     
     /**
@@ -294,4 +496,24 @@ public class ActivityLogService {
         
         return request.getRemoteAddr();
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Inner class for a keyset page of activity logs
+     */
+    public static class ActivityLogSlice {
+        private final List<ActivityLog> content;
+        private final String nextCursor;
+        private final boolean hasNext;
+        
+        public ActivityLogSlice(List<ActivityLog> content, String nextCursor, boolean hasNext) {
+            this.content = content;
+            this.nextCursor = nextCursor;
+            this.hasNext = hasNext;
+        }
+        
+        // Getters
+        public List<ActivityLog> getContent() { return content; }
+        public String getNextCursor() { return nextCursor; }
+        public boolean isHasNext() { return hasNext; }
+    }
+}
@@ -0,0 +1,249 @@
+package ma.gov.dgh.helpdesk.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import ma.gov.dgh.helpdesk.entity.ActivityLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind writer for activity logs.
+ * Request threads only enqueue; a background thread drains the bounded queue and writes
+ * the logs with JDBC batch inserts, every flush interval or as soon as a batch is full.
+ * The queue is flushed on shutdown. The writer thread is woken with a marker entry rather than
+ * interrupted, so a batch write is never cut short.
+ */
+@Component
+public class ActivityLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogWriter.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO activity_logs (timestamp, user_identifier, action, details, severity, ip_address, user_agent, " +
+        "session_id, affected_resource, old_value, new_value, department, location) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Queued by stop() to wake the writer thread; never written
+    private static final ActivityLog STOP_MARKER = new ActivityLog();
+
+    /**
+     * What to do with a log when the queue is full
+     */
+    public enum OverflowPolicy {
+        DROP_NEWEST,  // discard the incoming log
+        DROP_OLDEST,  // discard the oldest queued log to make room
+        CALLER_RUNS   // write the log synchronously on the calling thread
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${activity-log.writer.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${activity-log.writer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${activity-log.writer.flush-interval:1000}")
+    private long flushIntervalMs;
+
+    @Value("${activity-log.writer.overflow-policy:DROP_NEWEST}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${activity-log.writer.shutdown-timeout:10000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<ActivityLog> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    // Logs the writer thread held when it was interrupted, written by stop()
+    private volatile List<ActivityLog> unwritten = List.of();
+
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    @Autowired
+    public ActivityLogWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writerThread = new Thread(this::run, "DGH-ActivityLog-Writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Flush every queued log before shutdown
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        queue.offer(STOP_MARKER);
+        try {
+            writerThread.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever the writer thread did not get to
+        if (!unwritten.isEmpty()) {
+            writeBatch(unwritten);
+        }
+        flushAll();
+        logger.info("Activity log writer stopped: {} written, {} dropped, {} failed",
+            writtenCount.get(), droppedCount.get(), failedCount.get());
+    }
+
+    /**
+     * Queue a log for writing; never blocks on I/O unless the overflow policy is CALLER_RUNS
+     */
+    public void enqueue(ActivityLog activityLog) {
+        if (queue.offer(activityLog)) {
+            return;
+        }
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                while (!queue.offer(activityLog)) {
+                    if (queue.poll() != null) {
+                        recordDrop();
+                    }
+                }
+                break;
+            case CALLER_RUNS:
+                writeBatch(List.of(activityLog));
+                break;
+            case DROP_NEWEST:
+            default:
+                recordDrop();
+                break;
+        }
+    }
+
+    /**
+     * Write everything queued so far on the calling thread
+     */
+    public void flushAll() {
+        List<ActivityLog> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            batch.removeIf(log -> log == STOP_MARKER);
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Get writer statistics
+     */
+    public WriterStatistics getStatistics() {
+        return new WriterStatistics(queue.size(), writtenCount.get(), droppedCount.get(), failedCount.get());
+    }
+
+    // Private helper methods
+
+    private void run() {
+        List<ActivityLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                // Collect until the batch is full or the flush interval has elapsed
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    ActivityLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null || next == STOP_MARKER) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                    if (batch.removeIf(log -> log == STOP_MARKER)) {
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // No I/O on an interrupted thread: hand the batch to stop() along with the queue
+                unwritten = new ArrayList<>(batch);
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<ActivityLog> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, log) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(log.getTimestamp()));
+                ps.setString(2, log.getUserIdentifier());
+                ps.setString(3, log.getAction());
+                ps.setString(4, log.getDetails());
+                ps.setString(5, log.getSeverity() != null ? log.getSeverity().name() : null);
+                ps.setString(6, log.getIpAddress());
+                ps.setString(7, log.getUserAgent());
+                ps.setString(8, log.getSessionId());
+                ps.setString(9, log.getAffectedResource());
+                ps.setString(10, log.getOldValue());
+                ps.setString(11, log.getNewValue());
+                ps.setString(12, log.getDepartment());
+                ps.setString(13, log.getLocation());
+            });
+            writtenCount.addAndGet(batch.size());
+        } catch (Exception e) {
+            failedCount.addAndGet(batch.size());
+            logger.error("Failed to write {} activity logs: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void recordDrop() {
+        long dropped = droppedCount.incrementAndGet();
+        // Log the first drop and then every 1000th, not every one
+        if (dropped == 1 || dropped % 1000 == 0) {
+            logger.warn("Activity log queue full ({} entries), {} logs dropped so far", queueCapacity, dropped);
+        }
+    }
+
+    /**
+     * Inner class for writer statistics
+     */
+    public static class WriterStatistics {
+        private final int queued;
+        private final long written;
+        private final long dropped;
+        private final long failed;
+
+        public WriterStatistics(int queued, long written, long dropped, long failed) {
+            this.queued = queued;
+            this.written = written;
+            this.dropped = dropped;
+            this.failed = failed;
+        }
+
+        // Getters
+        public int getQueued() { return queued; }
+        public long getWritten() { return written; }
+        public long getDropped() { return dropped; }
+        public long getFailed() { return failed; }
+    }
+}
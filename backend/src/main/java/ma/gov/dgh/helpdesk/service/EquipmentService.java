@@ -11,8 +11,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service class for Equipment entity operations
@@ -21,11 +25,15 @@ import java.util.Optional;
 @Transactional
 public class EquipmentService {
     
+    private static final Set<EquipmentStatus> ALERT_STATUSES = EnumSet.of(EquipmentStatus.OFFLINE, EquipmentStatus.MAINTENANCE);
+    
     private final EquipmentRepository equipmentRepository;
+    private final StatisticsCounterService statisticsCounterService;
     
     @Autowired
-    public EquipmentService(EquipmentRepository equipmentRepository) {
+    public EquipmentService(EquipmentRepository equipmentRepository, StatisticsCounterService statisticsCounterService) {
         this.equipmentRepository = equipmentRepository;
+        this.statisticsCounterService = statisticsCounterService;
     }
     
     /**
@@ -48,7 +56,7 @@ public class EquipmentService {
         }
         
         equipment.setLastSeen(LocalDateTime.now());
-        return equipmentRepository.save(equipment);
+        return saveEquipment(equipment);
     }
     
     /**
@@ -64,6 +72,11 @@ public class EquipmentService {
             throw new IllegalArgumentException("Equipment not found with ID: " + equipment.getId());
         }
         
+        // A client sending the version it read gets a conflict if the equipment changed since; without one, last write wins
+        if (equipment.getVersion() == null) {
+            equipment.setVersion(existingEquipment.get().getVersion());
+        }
+        
         // Check for duplicate IP address (excluding current equipment)
         if (equipment.getIpAddress() != null) {
             Optional<Equipment> equipmentWithSameIp = equipmentRepository.findByIpAddress(equipment.getIpAddress());
@@ -88,7 +101,7 @@ public class EquipmentService {
             }
         }
         
-        return equipmentRepository.save(equipment);
+        return saveEquipment(equipment);
     }
     
     /**
@@ -147,6 +160,39 @@ public class EquipmentService {
         return equipmentRepository.findByStatus(status);
     }
     
+    /**
+     * Count equipment by status (statuses without equipment are reported as zero)
+     */
+    @Transactional(readOnly = true)
+    public Map<EquipmentStatus, Long> countByStatus() {
+        Map<EquipmentStatus, Long> counts = new EnumMap<>(EquipmentStatus.class);
+        for (EquipmentStatus status : EquipmentStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (Object[] row : equipmentRepository.getEquipmentCountByStatus()) {
+            if (row[0] != null) {
+                counts.put((EquipmentStatus) row[0], (Long) row[1]);
+            }
+        }
+        return counts;
+    }
+    
+    /**
+     * Count equipment alerts (offline or under maintenance)
+     */
+    @Transactional(readOnly = true)
+    public long countAlerts() {
+        return equipmentRepository.countByStatusIn(ALERT_STATUSES);
+    }
+    
+    /**
+     * Get equipment alerts (offline or under maintenance) with pagination
+     */
+    @Transactional(readOnly = true)
+    public Page<Equipment> findAlerts(Pageable pageable) {
+        return equipmentRepository.findByStatusIn(ALERT_STATUSES, pageable);
+    }
+    
     /**
      * Get equipment by location
      */
@@ -193,7 +239,7 @@ public class EquipmentService {
         Equipment equipment = equipmentOpt.get();
         equipment.setStatus(status);
         equipment.setLastSeen(LocalDateTime.now());
-        return equipmentRepository.save(equipment);
+        return saveEquipment(equipment);
     }
     
     /**
@@ -208,7 +254,7 @@ public class EquipmentService {
         Equipment equipment = equipmentOpt.get();
         equipment.setLastSeen(LocalDateTime.now());
         equipment.setStatus(EquipmentStatus.ONLINE);
-        return equipmentRepository.save(equipment);
+        return saveEquipment(equipment);
     }
     
     /**
@@ -223,7 +269,7 @@ public class EquipmentService {
         Equipment equipment = equipmentOpt.get();
         equipment.setLastSeen(LocalDateTime.now());
         equipment.setStatus(EquipmentStatus.ONLINE);
-        return equipmentRepository.save(equipment);
+        return saveEquipment(equipment);
     }
     
     /**
@@ -237,7 +283,7 @@ public class EquipmentService {
         
         Equipment equipment = equipmentOpt.get();
         equipment.setIsManaged(true);
-        return equipmentRepository.save(equipment);
+        return saveEquipment(equipment);
     }
     
     /**
@@ -251,17 +297,19 @@ public class EquipmentService {
         
         Equipment equipment = equipmentOpt.get();
         equipment.setIsManaged(false);
-        return equipmentRepository.save(equipment);
+        return saveEquipment(equipment);
     }
     
     /**
      * Delete equipment
      */
     public void deleteEquipment(Long equipmentId) {
-        if (!equipmentRepository.existsById(equipmentId)) {
+        Optional<Equipment> equipmentOpt = equipmentRepository.findById(equipmentId);
+        if (equipmentOpt.isEmpty()) {
             throw new IllegalArgumentException("Equipment not found with ID: " + equipmentId);
         }
-        equipmentRepository.deleteById(equipmentId);
+        statisticsCounterService.recordEquipmentRemoval(equipmentOpt.get());
+        equipmentRepository.delete(equipmentOpt.get());
     }
     
     /**
@@ -304,12 +352,7 @@ public class EquipmentService {
      */
     @Transactional(readOnly = true)
     public EquipmentStatistics getEquipmentStatistics() {
-        long totalEquipment = equipmentRepository.count();
-        long onlineEquipment = equipmentRepository.countByStatus(EquipmentStatus.ONLINE);
-        long offlineEquipment = equipmentRepository.countByStatus(EquipmentStatus.OFFLINE);
-        long managedEquipment = equipmentRepository.countByIsManagedTrue();
-        
-        return new EquipmentStatistics(totalEquipment, onlineEquipment, offlineEquipment, managedEquipment);
+        return StatisticsCounterService.toEquipmentStatistics(statisticsCounterService.getCounters());
     }
     
     /**
@@ -329,7 +372,7 @@ public class EquipmentService {
             equipment.setModel(model);
             equipment.setLastSeen(LocalDateTime.now());
             equipment.setStatus(EquipmentStatus.ONLINE);
-            return equipmentRepository.save(equipment);
+            return saveEquipment(equipment);
         } else {
             // Create new equipment
             Equipment newEquipment = new Equipment(ipAddress, type);
@@ -339,10 +382,18 @@ public class EquipmentService {
             newEquipment.setModel(model);
             newEquipment.setLastSeen(LocalDateTime.now());
             newEquipment.setStatus(EquipmentStatus.ONLINE);
-            return equipmentRepository.save(newEquipment);
+            return saveEquipment(newEquipment);
         }
     }
     
+    // Private helper methods
+    
+    private Equipment saveEquipment(Equipment equipment) {
+        Equipment savedEquipment = equipmentRepository.save(equipment);
+        statisticsCounterService.recordEquipmentChange(savedEquipment);
+        return savedEquipment;
+    }
+    
     /**
      * Inner class for equipment statistics
      */
@@ -5,6 +5,7 @@ import ma.gov.dgh.helpdesk.entity.EquipmentType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -17,7 +18,14 @@ import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,6 +39,9 @@ public class NetworkDiscoveryService {
     
     private final EquipmentService equipmentService;
     private final SnmpService snmpService;
+    private final SubnetSweepService subnetSweepService;
+    private final Executor discoveryExecutor;
+    private final Executor enrichmentExecutor;
     
     @Value("${network.discovery.enabled:true}")
     private boolean discoveryEnabled;
@@ -38,10 +49,24 @@ public class NetworkDiscoveryService {
     @Value("${network.discovery.subnet-ranges:192.168.1.0/24}")
     private String subnetRanges;
     
+    @Value("${network.discovery.nmap.enabled:false}")
+    private boolean nmapEnabled;
+    
+    @Value("${network.discovery.pipeline.queue-capacity:64}")
+    private int pipelineQueueCapacity;
+    
+    private final AtomicBoolean scanInProgress = new AtomicBoolean(false);
+    
     @Autowired
-    public NetworkDiscoveryService(EquipmentService equipmentService, SnmpService snmpService) {
+    public NetworkDiscoveryService(EquipmentService equipmentService, SnmpService snmpService,
+                                   SubnetSweepService subnetSweepService,
+                                   @Qualifier("networkDiscoveryExecutor") Executor discoveryExecutor,
+                                   @Qualifier("networkEnrichmentExecutor") Executor enrichmentExecutor) {
         this.equipmentService = equipmentService;
         this.snmpService = snmpService;
+        this.subnetSweepService = subnetSweepService;
+        this.discoveryExecutor = discoveryExecutor;
+        this.enrichmentExecutor = enrichmentExecutor;
     }
     
     /**
@@ -63,70 +88,113 @@ public class NetworkDiscoveryService {
      */
     @Async
     public CompletableFuture<List<Equipment>> performNetworkDiscovery() {
-        logger.info("Starting network discovery for subnets: {}", subnetRanges);
-        
-        List<Equipment> discoveredEquipment = new ArrayList<>();
-        String[] subnets = subnetRanges.split(",");
+        if (!scanInProgress.compareAndSet(false, true)) {
+            logger.warn("Network discovery already in progress, skipping");
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
         
-        for (String subnet : subnets) {
-            try {
-                List<Equipment> subnetEquipment = scanSubnet(subnet.trim());
-                discoveredEquipment.addAll(subnetEquipment);
-            } catch (Exception e) {
-                logger.error("Error scanning subnet {}: {}", subnet, e.getMessage());
+        try {
+            logger.info("Starting network discovery for subnets: {}", subnetRanges);
+            
+            List<Equipment> discoveredEquipment = new ArrayList<>();
+            String[] subnets = subnetRanges.split(",");
+            
+            for (String subnet : subnets) {
+                try {
+                    List<Equipment> subnetEquipment = scanSubnet(subnet.trim());
+                    discoveredEquipment.addAll(subnetEquipment);
+                } catch (Exception e) {
+                    logger.error("Error scanning subnet {}: {}", subnet, e.getMessage());
+                }
             }
+            
+            logger.info("Network discovery completed. Found {} devices", discoveredEquipment.size());
+            return CompletableFuture.completedFuture(discoveredEquipment);
+        } finally {
+            scanInProgress.set(false);
         }
-        
-        logger.info("Network discovery completed. Found {} devices", discoveredEquipment.size());
-        return CompletableFuture.completedFuture(discoveredEquipment);
     }
     
     /**
-     * Scan a specific subnet for devices
+     * Scan a specific subnet for devices.
+     * Runs as a pipeline: liveness (sweep) -> enrichment (DNS, ARP and SNMP in parallel per host)
+     * -> persistence, with a bounded number of hosts between stages so a slow stage applies back-pressure.
      */
     private List<Equipment> scanSubnet(String subnet) {
         logger.info("Scanning subnet: {}", subnet);
         List<Equipment> equipment = new ArrayList<>();
         
+        BlockingQueue<DiscoveredHost> enrichedHosts = new ArrayBlockingQueue<>(pipelineQueueCapacity);
+        Semaphore enrichmentSlots = new Semaphore(pipelineQueueCapacity);
+        
+        // Stage 1: liveness, each live host is handed to the enrichment stage
+        CompletableFuture<Void> liveness = CompletableFuture.runAsync(() -> performPingScan(subnet, ip -> {
+            try {
+                enrichmentSlots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            // Stage 2: enrichment, the slot is released once the host is queued for persistence
+            enrichHost(ip)
+                .thenAccept(host -> {
+                    try {
+                        enrichedHosts.put(host);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        logger.warn("Error enriching device at {}: {}", ip, error.getMessage());
+                    }
+                    enrichmentSlots.release();
+                });
+        }), discoveryExecutor);
+        
+        // Stage 3: persistence, on this thread until the earlier stages are drained
         try {
-            List<String> activeIps = performPingScan(subnet);
-            
-            for (String ip : activeIps) {
-                try {
-                    Equipment device = discoverDevice(ip);
+            while (true) {
+                boolean upstreamDone = liveness.isDone() && enrichmentSlots.availablePermits() == pipelineQueueCapacity;
+                DiscoveredHost host = enrichedHosts.poll(200, TimeUnit.MILLISECONDS);
+                if (host != null) {
+                    Equipment device = persistHost(host);
                     if (device != null) {
                         equipment.add(device);
                     }
-                } catch (Exception e) {
-                    logger.warn("Error discovering device at {}: {}", ip, e.getMessage());
+                } else if (upstreamDone) {
+                    break;
                 }
             }
-        } catch (Exception e) {
-            logger.error("Error scanning subnet {}: {}", subnet, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Scan of subnet {} interrupted", subnet);
+        }
+        
+        if (liveness.isCompletedExceptionally()) {
+            logger.error("Error scanning subnet {}: {}", subnet, liveness.handle((v, e) -> e.getMessage()).join());
         }
         
         return equipment;
     }
     
     /**
-     * Perform ping scan to find active IPs
+     * Perform ping scan to find active IPs, reporting each one as it is found
      */
-    private List<String> performPingScan(String subnet) {
-        List<String> activeIps = new ArrayList<>();
-        
+    private void performPingScan(String subnet, Consumer<String> onAlive) {
         try {
-            // Use nmap for network scanning if available
-            if (isNmapAvailable()) {
-                activeIps = performNmapScan(subnet);
+            // Use nmap for network scanning if enabled and available
+            if (nmapEnabled && isNmapAvailable()) {
+                performNmapScan(subnet).forEach(onAlive);
             } else {
-                // Fallback to Java ping
-                activeIps = performJavaPingScan(subnet);
+                // Concurrent CIDR sweep
+                subnetSweepService.sweep(subnet, onAlive);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             logger.error("Error performing ping scan: {}", e.getMessage());
         }
-        
-        return activeIps;
     }
     
     /**
@@ -170,55 +238,46 @@ public class NetworkDiscoveryService {
     }
     
     /**
-     * Fallback ping scan using Java
+     * Discover device information for a specific IP
      */
-    private List<String> performJavaPingScan(String subnet) {
-        List<String> activeIps = new ArrayList<>();
-        
-        // Parse subnet (simple implementation for /24 networks)
-        if (subnet.endsWith("/24")) {
-            String baseIp = subnet.substring(0, subnet.lastIndexOf('.'));
-            
-            for (int i = 1; i < 255; i++) {
-                String ip = baseIp + "." + i;
-                try {
-                    InetAddress address = InetAddress.getByName(ip);
-                    if (address.isReachable(1000)) { // 1 second timeout
-                        activeIps.add(ip);
-                    }
-                } catch (Exception e) {
-                    // Ignore unreachable hosts
-                }
-            }
-        }
-        
-        return activeIps;
+    private Equipment discoverDevice(String ipAddress) {
+        logger.debug("Discovering device at IP: {}", ipAddress);
+        return persistHost(enrichHost(ipAddress).join());
     }
     
     /**
-     * Discover device information for a specific IP
+     * Gather hostname, MAC address and SNMP information for a host, with the three lookups in parallel
      */
-    private Equipment discoverDevice(String ipAddress) {
-        logger.debug("Discovering device at IP: {}", ipAddress);
+    private CompletableFuture<DiscoveredHost> enrichHost(String ipAddress) {
+        CompletableFuture<String> hostname = CompletableFuture
+            .supplyAsync(() -> getHostname(ipAddress), enrichmentExecutor)
+            .exceptionally(e -> null);
+        CompletableFuture<String> macAddress = CompletableFuture
+            .supplyAsync(() -> getMacAddress(ipAddress), enrichmentExecutor)
+            .exceptionally(e -> null);
+        // SNMP is asynchronous over the shared session and does not hold an enrichment thread
+        CompletableFuture<SnmpDeviceInfo> snmpInfo = snmpService.getDeviceInfoAsync(ipAddress)
+            .exceptionally(e -> null);
         
+        return CompletableFuture.allOf(hostname, macAddress, snmpInfo)
+            .thenApply(v -> new DiscoveredHost(ipAddress, hostname.join(), macAddress.join(), snmpInfo.join()));
+    }
+    
+    /**
+     * Create or update the equipment for an enriched host
+     */
+    private Equipment persistHost(DiscoveredHost host) {
         try {
-            // Get hostname
-            String hostname = getHostname(ipAddress);
-            
-            // Get MAC address (if possible)
-            String macAddress = getMacAddress(ipAddress);
-            
-            // Try SNMP discovery for additional information
-            SnmpDeviceInfo snmpInfo = snmpService.getDeviceInfo(ipAddress);
+            SnmpDeviceInfo snmpInfo = host.snmpInfo;
             
             // Determine equipment type
-            EquipmentType equipmentType = determineEquipmentType(snmpInfo, hostname);
+            EquipmentType equipmentType = determineEquipmentType(snmpInfo, host.hostname);
             
             // Create or update equipment
             Equipment equipment = equipmentService.createOrUpdateFromDiscovery(
-                ipAddress,
-                macAddress,
-                hostname,
+                host.ipAddress,
+                host.macAddress,
+                host.hostname,
                 equipmentType,
                 snmpInfo != null ? snmpInfo.getManufacturer() : null,
                 snmpInfo != null ? snmpInfo.getModel() : null
@@ -231,11 +290,11 @@ public class NetworkDiscoveryService {
                 equipment.setSpecifications(snmpInfo.toJson());
             }
             
-            logger.info("Discovered device: {} ({})", hostname, ipAddress);
+            logger.info("Discovered device: {} ({})", host.hostname, host.ipAddress);
             return equipment;
             
         } catch (Exception e) {
-            logger.warn("Failed to discover device at {}: {}", ipAddress, e.getMessage());
+            logger.warn("Failed to discover device at {}: {}", host.ipAddress, e.getMessage());
             return null;
         }
     }
@@ -342,7 +401,24 @@ public class NetworkDiscoveryService {
      * Get discovery status
      */
     public DiscoveryStatus getDiscoveryStatus() {
-        return new DiscoveryStatus(discoveryEnabled, subnetRanges);
+        return new DiscoveryStatus(discoveryEnabled, subnetRanges, scanInProgress.get(), subnetSweepService.getProgress());
+    }
+    
+    /**
+     * Inner class for a host passing through the discovery pipeline
+     */
+    private static class DiscoveredHost {
+        private final String ipAddress;
+        private final String hostname;
+        private final String macAddress;
+        private final SnmpDeviceInfo snmpInfo;
+        
+        DiscoveredHost(String ipAddress, String hostname, String macAddress, SnmpDeviceInfo snmpInfo) {
+            this.ipAddress = ipAddress;
+            this.hostname = hostname;
+            this.macAddress = macAddress;
+            this.snmpInfo = snmpInfo;
+        }
     }
     
     /**
@@ -351,10 +427,15 @@ public class NetworkDiscoveryService {
     public static class DiscoveryStatus {
         private final boolean enabled;
         private final String subnetRanges;
+        private final boolean scanInProgress;
+        private final List<SubnetSweepService.SweepProgress> subnetProgress;
         
-        public DiscoveryStatus(boolean enabled, String subnetRanges) {
+        public DiscoveryStatus(boolean enabled, String subnetRanges, boolean scanInProgress,
+                               List<SubnetSweepService.SweepProgress> subnetProgress) {
             this.enabled = enabled;
             this.subnetRanges = subnetRanges;
+            this.scanInProgress = scanInProgress;
+            this.subnetProgress = subnetProgress;
         }
         
         public boolean isEnabled() {
@@ -364,5 +445,13 @@ public class NetworkDiscoveryService {
         public String getSubnetRanges() {
             return subnetRanges;
         }
+        
+        public boolean isScanInProgress() {
+            return scanInProgress;
+        }
+        
+        public List<SubnetSweepService.SweepProgress> getSubnetProgress() {
+            return subnetProgress;
+        }
     }
 }
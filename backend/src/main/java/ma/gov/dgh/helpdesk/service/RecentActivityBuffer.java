@@ -0,0 +1,62 @@
+package ma.gov.dgh.helpdesk.service;
+
+import ma.gov.dgh.helpdesk.entity.ActivityLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ring buffer of the most recent audit events, fed by ActivityLogService as events are logged.
+ * Serves the admin live activity panel without a database query.
+ * Events still waiting in the write-behind queue have no ID yet.
+ */
+@Component
+public class RecentActivityBuffer {
+
+    private final ActivityLog[] events;
+    private int next;
+    private int size;
+
+    public RecentActivityBuffer(@Value("${activity-log.live.capacity:200}") int capacity) {
+        this.events = new ActivityLog[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Add an event, overwriting the oldest one when full
+     */
+    public synchronized void add(ActivityLog activityLog) {
+        events[next] = activityLog;
+        next = (next + 1) % events.length;
+        if (size < events.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Fill the buffer with already stored events (oldest first) if nothing was recorded yet
+     */
+    public synchronized void seed(List<ActivityLog> oldestFirst) {
+        if (size > 0) {
+            return;
+        }
+        oldestFirst.forEach(this::add);
+    }
+
+    /**
+     * Get up to limit events, newest first
+     */
+    public synchronized List<ActivityLog> getRecent(int limit) {
+        int count = Math.min(Math.max(limit, 0), size);
+        List<ActivityLog> recent = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            recent.add(events[(next - i + events.length) % events.length]);
+        }
+        return recent;
+    }
+
+    public int getCapacity() {
+        return events.length;
+    }
+}
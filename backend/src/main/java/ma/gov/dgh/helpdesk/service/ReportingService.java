@@ -0,0 +1,260 @@
+package ma.gov.dgh.helpdesk.service;
+
+import ma.gov.dgh.helpdesk.entity.TicketCategory;
+import ma.gov.dgh.helpdesk.entity.TicketPriority;
+import ma.gov.dgh.helpdesk.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service for ticket resolution analytics.
+ * Average, median, 90th percentile and SLA compliance of the resolution time are aggregated by the database,
+ * so reports never load ticket histories. Report windows are aligned to time buckets and each report
+ * is cached until the bucket it was computed in ends.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ReportingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportingService.class);
+
+    /**
+     * Group key of the tickets without a category or priority
+     */
+    public static final String UNSET_KEY = "NONE";
+
+    /**
+     * Dimension a resolution report is grouped by
+     */
+    public enum ReportDimension {
+        CATEGORY,
+        PRIORITY,
+        TECHNICIAN
+    }
+
+    private final TicketRepository ticketRepository;
+    private final Map<ReportKey, ResolutionReport> cache = new ConcurrentHashMap<>();
+
+    @Value("${reporting.cache.bucket:900000}")
+    private long bucketMs;
+
+    @Autowired
+    public ReportingService(TicketRepository ticketRepository) {
+        this.ticketRepository = ticketRepository;
+    }
+
+    /**
+     * Get resolution metrics of tickets resolved during the last days, grouped by a dimension
+     */
+    public ResolutionReport getResolutionReport(ReportDimension dimension, int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("Report period must be at least one day");
+        }
+        LocalDateTime to = LocalDateTime.now();
+        return getResolutionReport(dimension, to.minusDays(days), to);
+    }
+
+    /**
+     * Get resolution metrics of tickets resolved in [from, to), grouped by a dimension.
+     * The window is widened to whole time buckets so that close requests share a cached report.
+     */
+    public ResolutionReport getResolutionReport(ReportDimension dimension, LocalDateTime from, LocalDateTime to) {
+        if (dimension == null) {
+            throw new IllegalArgumentException("Report dimension is required");
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Report start must be before its end");
+        }
+        long now = System.currentTimeMillis();
+        long bucketFrom = Math.floorDiv(toMillis(from), bucketMs) * bucketMs;
+        long bucketTo = (Math.floorDiv(toMillis(to) - 1, bucketMs) + 1) * bucketMs;
+        ReportKey key = new ReportKey(dimension, bucketFrom, bucketTo);
+
+        ResolutionReport cached = cache.get(key);
+        if (cached != null && cached.expiresAtMillis > now) {
+            return cached;
+        }
+        cache.values().removeIf(report -> report.expiresAtMillis <= now);
+
+        long start = System.currentTimeMillis();
+        ResolutionReport report = new ResolutionReport(dimension, toDateTime(bucketFrom), toDateTime(bucketTo),
+            computeMetrics(dimension, toDateTime(bucketFrom), toDateTime(bucketTo)),
+            (Math.floorDiv(now, bucketMs) + 1) * bucketMs);
+        cache.put(key, report);
+        logger.debug("Computed {} resolution report for {} - {} in {} ms",
+            dimension, report.getFrom(), report.getTo(), System.currentTimeMillis() - start);
+        return report;
+    }
+
+    /**
+     * Drop all cached reports
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    // Private helper methods
+
+    private List<ResolutionMetrics> computeMetrics(ReportDimension dimension, LocalDateTime from, LocalDateTime to) {
+        List<ResolutionMetrics> metrics = new ArrayList<>();
+        switch (dimension) {
+            case CATEGORY:
+                for (Object[] row : ticketRepository.getResolutionMetricsByCategory(from, to)) {
+                    // Tickets may be saved without a category
+                    TicketCategory category = (TicketCategory) row[0];
+                    metrics.add(category != null
+                        ? toMetrics(category.name(), category.getDisplayName(), row, 1)
+                        : toMetrics(UNSET_KEY, "Uncategorized", row, 1));
+                }
+                break;
+            case PRIORITY:
+                for (Object[] row : ticketRepository.getResolutionMetricsByPriority(from, to)) {
+                    TicketPriority priority = (TicketPriority) row[0];
+                    metrics.add(priority != null
+                        ? toMetrics(priority.name(), priority.getDisplayName(), row, 1)
+                        : toMetrics(UNSET_KEY, "No priority", row, 1));
+                }
+                break;
+            case TECHNICIAN:
+                for (Object[] row : ticketRepository.getResolutionMetricsByAssignee(from, to)) {
+                    metrics.add(toMetrics(String.valueOf(row[0]), (String) row[1], row, 2));
+                }
+                break;
+        }
+        return metrics;
+    }
+
+    private ResolutionMetrics toMetrics(String key, String label, Object[] row, int offset) {
+        long resolved = toLong(row[offset]);
+        long withDueDate = toLong(row[offset + 4]);
+        long metDueDate = toLong(row[offset + 5]);
+        return new ResolutionMetrics(key, label, resolved,
+            toHours(row[offset + 1]), toHours(row[offset + 2]), toHours(row[offset + 3]),
+            withDueDate, metDueDate, withDueDate > 0 ? (double) metDueDate / withDueDate * 100 : 100.0);
+    }
+
+    private long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private double toHours(Object seconds) {
+        return seconds != null ? ((Number) seconds).doubleValue() / 3600.0 : 0.0;
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Cache key: dimension and bucket-aligned window
+     */
+    private static class ReportKey {
+        private final ReportDimension dimension;
+        private final long from;
+        private final long to;
+
+        ReportKey(ReportDimension dimension, long from, long to) {
+            this.dimension = dimension;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ReportKey)) return false;
+            ReportKey other = (ReportKey) o;
+            return dimension == other.dimension && from == other.from && to == other.to;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dimension, from, to);
+        }
+    }
+
+    /**
+     * Inner class for a resolution report over a time window
+     */
+    public static class ResolutionReport {
+        private final ReportDimension dimension;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final List<ResolutionMetrics> metrics;
+        private final LocalDateTime computedAt = LocalDateTime.now();
+        private final long expiresAtMillis;
+
+        public ResolutionReport(ReportDimension dimension, LocalDateTime from, LocalDateTime to,
+                                List<ResolutionMetrics> metrics, long expiresAtMillis) {
+            this.dimension = dimension;
+            this.from = from;
+            this.to = to;
+            this.metrics = metrics;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        // Getters
+        public ReportDimension getDimension() { return dimension; }
+        public LocalDateTime getFrom() { return from; }
+        public LocalDateTime getTo() { return to; }
+        public List<ResolutionMetrics> getMetrics() { return metrics; }
+        public LocalDateTime getComputedAt() { return computedAt; }
+    }
+
+    /**
+     * Inner class for the resolution metrics of one group (times in hours, compliance in percent)
+     */
+    public static class ResolutionMetrics {
+        private final String key;
+        private final String label;
+        private final long resolvedTickets;
+        private final double avgResolutionHours;
+        private final double medianResolutionHours;
+        private final double p90ResolutionHours;
+        private final long ticketsWithDueDate;
+        private final long ticketsResolvedInTime;
+        private final double slaCompliance;
+
+        public ResolutionMetrics(String key, String label, long resolvedTickets, double avgResolutionHours,
+                                 double medianResolutionHours, double p90ResolutionHours, long ticketsWithDueDate,
+                                 long ticketsResolvedInTime, double slaCompliance) {
+            this.key = key;
+            this.label = label;
+            this.resolvedTickets = resolvedTickets;
+            this.avgResolutionHours = avgResolutionHours;
+            this.medianResolutionHours = medianResolutionHours;
+            this.p90ResolutionHours = p90ResolutionHours;
+            this.ticketsWithDueDate = ticketsWithDueDate;
+            this.ticketsResolvedInTime = ticketsResolvedInTime;
+            this.slaCompliance = slaCompliance;
+        }
+
+        // Getters
+        public String getKey() { return key; }
+        public String getLabel() { return label; }
+        public long getResolvedTickets() { return resolvedTickets; }
+        public double getAvgResolutionHours() { return avgResolutionHours; }
+        public double getMedianResolutionHours() { return medianResolutionHours; }
+        public double getP90ResolutionHours() { return p90ResolutionHours; }
+        public long getTicketsWithDueDate() { return ticketsWithDueDate; }
+        public long getTicketsResolvedInTime() { return ticketsResolvedInTime; }
+        public double getSlaCompliance() { return slaCompliance; }
+    }
+}
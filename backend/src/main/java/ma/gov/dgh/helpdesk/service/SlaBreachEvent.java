@@ -0,0 +1,24 @@
+package ma.gov.dgh.helpdesk.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Application event published by SlaMonitor when an open ticket passes its due date.
+ * Listen with @EventListener to be notified of SLA breaches (escalation, audit, notifications).
+ */
+public class SlaBreachEvent {
+
+    private final Long ticketId;
+    private final LocalDateTime dueDate;
+    private final LocalDateTime detectedAt = LocalDateTime.now();
+
+    public SlaBreachEvent(Long ticketId, LocalDateTime dueDate) {
+        this.ticketId = ticketId;
+        this.dueDate = dueDate;
+    }
+
+    // Getters
+    public Long getTicketId() { return ticketId; }
+    public LocalDateTime getDueDate() { return dueDate; }
+    public LocalDateTime getDetectedAt() { return detectedAt; }
+}
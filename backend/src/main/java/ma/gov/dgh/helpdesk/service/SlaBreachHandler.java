@@ -0,0 +1,48 @@
+package ma.gov.dgh.helpdesk.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reacts to SLA breaches off the timer thread: escalates the ticket, notifies stream subscribers
+ * and records an audit entry
+ */
+@Component
+public class SlaBreachHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlaBreachHandler.class);
+
+    private final TicketService ticketService;
+    private final ActivityLogService activityLogService;
+
+    @Autowired
+    public SlaBreachHandler(TicketService ticketService, ActivityLogService activityLogService) {
+        this.ticketService = ticketService;
+        this.activityLogService = activityLogService;
+    }
+
+    @Async("slaBreachExecutor")
+    @EventListener
+    public void onSlaBreach(SlaBreachEvent event) {
+        try {
+            boolean escalated;
+            try {
+                escalated = ticketService.handleSlaBreach(event.getTicketId());
+            } catch (OptimisticLockingFailureException e) {
+                // The ticket was updated meanwhile; decide again from its new state
+                escalated = ticketService.handleSlaBreach(event.getTicketId());
+            }
+            if (escalated) {
+                activityLogService.logSlaBreach(event.getTicketId(), event.getDueDate());
+                logger.warn("Ticket #{} breached its SLA (due {})", event.getTicketId(), event.getDueDate());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to handle SLA breach of ticket #{}: {}", event.getTicketId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package ma.gov.dgh.helpdesk.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import ma.gov.dgh.helpdesk.entity.Ticket;
+import ma.gov.dgh.helpdesk.entity.TicketStatus;
+import ma.gov.dgh.helpdesk.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory SLA monitor for open tickets.
+ * Due dates are kept in a hashed timer wheel driven by a single timer thread: each tick only looks at
+ * one slot, so the cost of a tick does not depend on the number of open tickets. When a due date passes
+ * an SlaBreachEvent is published and, once it has been accepted, the ticket moves to the overdue set (which
+ * serves the overdue ticket list). A breach that cannot be published is retried on the next tick.
+ * The wheel is loaded from the database at startup and kept current by TicketService after each commit.
+ */
+@Component
+public class SlaMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlaMonitor.class);
+
+    private final TicketRepository ticketRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${sla.timer.tick:1000}")
+    private long tickMs;
+
+    @Value("${sla.timer.wheel-size:3600}")
+    private int wheelSize;
+
+    @Value("${sla.load-batch-size:1000}")
+    private int loadBatchSize;
+
+    // Wheel state, guarded by this
+    private List<Set<Timeout>> wheel;
+    private final Map<Long, Timeout> timeouts = new HashMap<>();
+    private final Map<Long, Timeout> firing = new HashMap<>();
+    private long startMillis;
+    private long currentTick;
+
+    // Overdue tickets, ordered by due date; written under this, read without locking
+    private final ConcurrentSkipListSet<OverdueTicket> overdue = new ConcurrentSkipListSet<>();
+    private final Map<Long, OverdueTicket> overdueById = new ConcurrentHashMap<>();
+
+    private Thread timerThread;
+    private volatile boolean running;
+    private volatile boolean ready;
+
+    @Autowired
+    public SlaMonitor(TicketRepository ticketRepository, ApplicationEventPublisher eventPublisher) {
+        this.ticketRepository = ticketRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    public void start() {
+        initWheel(System.currentTimeMillis());
+        running = true;
+        timerThread = new Thread(this::run, "DGH-SLA-Timer");
+        timerThread.setDaemon(true);
+        timerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        timerThread.interrupt();
+    }
+
+    /**
+     * Load the due dates of open tickets once the application is ready
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        long start = System.currentTimeMillis();
+        long lastTicketId = 0L;
+        int loaded = 0;
+        List<Object[]> rows;
+        do {
+            rows = ticketRepository.findOpenTicketDueDates(lastTicketId, PageRequest.of(0, loadBatchSize));
+            for (Object[] row : rows) {
+                lastTicketId = (Long) row[0];
+                // Changes committed while loading win over the rows read here
+                scheduleIfAbsent(lastTicketId, (LocalDateTime) row[1]);
+            }
+            loaded += rows.size();
+        } while (rows.size() == loadBatchSize);
+        ready = true;
+        logger.info("SLA monitor loaded {} open tickets ({} already overdue) in {} ms",
+            loaded, overdue.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Follow a ticket's due date and status once the current transaction commits
+     */
+    public void track(Ticket ticket) {
+        Long ticketId = ticket.getId();
+        LocalDateTime dueDate = isOpen(ticket.getStatus()) ? ticket.getDueDate() : null;
+        afterCommit(() -> {
+            if (dueDate != null) {
+                schedule(ticketId, dueDate);
+            } else {
+                cancel(ticketId);
+            }
+        });
+    }
+
+    /**
+     * Stop following a ticket once the current transaction commits
+     */
+    public void untrack(Long ticketId) {
+        afterCommit(() -> cancel(ticketId));
+    }
+
+    /**
+     * Whether the open tickets have been loaded; until then overdue tickets must come from the database
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Get up to limit overdue tickets after a (dueDate, ticketId) position, most overdue first.
+     * A null position starts from the most overdue ticket.
+     */
+    public List<OverdueTicket> getOverdue(LocalDateTime afterDueDate, Long afterTicketId, int limit) {
+        Iterable<OverdueTicket> tickets = afterDueDate == null ? overdue
+            : overdue.tailSet(new OverdueTicket(afterTicketId, afterDueDate), false);
+        List<OverdueTicket> result = new ArrayList<>(Math.min(limit, 1024));
+        for (OverdueTicket ticket : tickets) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(ticket);
+        }
+        return result;
+    }
+
+    public int getOverdueCount() {
+        return overdue.size();
+    }
+
+    public synchronized int getPendingCount() {
+        return timeouts.size() + firing.size();
+    }
+
+    /**
+     * Empty the wheel and start counting ticks from the given time (the timer thread is not involved)
+     */
+    synchronized void initWheel(long startMillis) {
+        wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            wheel.add(new HashSet<>());
+        }
+        this.startMillis = startMillis;
+        currentTick = 0;
+    }
+
+    /**
+     * Advance the wheel by one tick and publish the breaches of the timeouts that expired
+     */
+    void tick() {
+        for (Timeout expired : advance()) {
+            try {
+                eventPublisher.publishEvent(new SlaBreachEvent(expired.ticketId, expired.dueDate));
+                fired(expired);
+            } catch (RuntimeException e) {
+                logger.error("Failed to publish SLA breach of ticket #{}, retrying: {}", expired.ticketId, e.getMessage());
+                retry(expired);
+            }
+        }
+    }
+
+    // Private helper methods
+
+    private void run() {
+        while (running) {
+            long nextTickMillis;
+            synchronized (this) {
+                nextTickMillis = startMillis + (currentTick + 1) * tickMs;
+            }
+            long sleep = nextTickMillis - System.currentTimeMillis();
+            if (sleep > 0) {
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            tick();
+        }
+    }
+
+    private synchronized List<Timeout> advance() {
+        currentTick++;
+        List<Timeout> expired = new ArrayList<>();
+        Set<Timeout> slot = wheel.get((int) (currentTick % wheelSize));
+        slot.removeIf(timeout -> {
+            if (timeout.rounds > 0) {
+                timeout.rounds--;
+                return false;
+            }
+            timeouts.remove(timeout.ticketId);
+            firing.put(timeout.ticketId, timeout);
+            expired.add(timeout);
+            return true;
+        });
+        return expired;
+    }
+
+    private synchronized void fired(Timeout timeout) {
+        // Skip tickets closed or rescheduled while their breach was being published
+        if (firing.remove(timeout.ticketId, timeout)) {
+            markOverdue(timeout.ticketId, timeout.dueDate);
+        }
+    }
+
+    private synchronized void retry(Timeout timeout) {
+        if (firing.remove(timeout.ticketId, timeout)) {
+            schedule(timeout.ticketId, timeout.dueDate);
+        }
+    }
+
+    private synchronized void schedule(Long ticketId, LocalDateTime dueDate) {
+        Timeout existing = timeouts.get(ticketId);
+        if (existing != null && existing.dueDate.equals(dueDate)) {
+            return;
+        }
+        Timeout firingTimeout = firing.get(ticketId);
+        if (firingTimeout != null && firingTimeout.dueDate.equals(dueDate)) {
+            return;
+        }
+        OverdueTicket overdueTicket = overdueById.get(ticketId);
+        if (overdueTicket != null && overdueTicket.dueDate.equals(dueDate)) {
+            return;
+        }
+        cancel(ticketId);
+
+        long dueMillis = dueDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        // Round up so a timeout never fires before its due date; a past due date fires on the next tick
+        long deadlineTick = Math.max(Math.floorDiv(dueMillis - startMillis + tickMs - 1, tickMs), currentTick + 1);
+        Timeout timeout = new Timeout(ticketId, dueDate, (int) (deadlineTick % wheelSize),
+            (deadlineTick - currentTick - 1) / wheelSize);
+        wheel.get(timeout.slot).add(timeout);
+        timeouts.put(ticketId, timeout);
+    }
+
+    private synchronized void scheduleIfAbsent(Long ticketId, LocalDateTime dueDate) {
+        if (!timeouts.containsKey(ticketId) && !firing.containsKey(ticketId) && !overdueById.containsKey(ticketId)) {
+            schedule(ticketId, dueDate);
+        }
+    }
+
+    private synchronized void cancel(Long ticketId) {
+        Timeout timeout = timeouts.remove(ticketId);
+        if (timeout != null) {
+            wheel.get(timeout.slot).remove(timeout);
+        }
+        firing.remove(ticketId);
+        OverdueTicket overdueTicket = overdueById.remove(ticketId);
+        if (overdueTicket != null) {
+            overdue.remove(overdueTicket);
+        }
+    }
+
+    private void markOverdue(Long ticketId, LocalDateTime dueDate) {
+        OverdueTicket overdueTicket = new OverdueTicket(ticketId, dueDate);
+        overdueById.put(ticketId, overdueTicket);
+        overdue.add(overdueTicket);
+    }
+
+    private boolean isOpen(TicketStatus status) {
+        return status != TicketStatus.RESOLVED && status != TicketStatus.CLOSED && status != TicketStatus.CANCELLED;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Pending due date in a wheel slot; fires when the slot comes around with no rounds left
+     */
+    private static class Timeout {
+        private final Long ticketId;
+        private final LocalDateTime dueDate;
+        private final int slot;
+        private long rounds;
+
+        Timeout(Long ticketId, LocalDateTime dueDate, int slot, long rounds) {
+            this.ticketId = ticketId;
+            this.dueDate = dueDate;
+            this.slot = slot;
+            this.rounds = rounds;
+        }
+    }
+
+    /**
+     * Inner class for an overdue ticket, ordered by due date then ticket ID
+     */
+    public static class OverdueTicket implements Comparable<OverdueTicket> {
+        private final Long ticketId;
+        private final LocalDateTime dueDate;
+
+        public OverdueTicket(Long ticketId, LocalDateTime dueDate) {
+            this.ticketId = ticketId;
+            this.dueDate = dueDate;
+        }
+
+        @Override
+        public int compareTo(OverdueTicket other) {
+            int byDueDate = dueDate.compareTo(other.dueDate);
+            return byDueDate != 0 ? byDueDate : ticketId.compareTo(other.ticketId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof OverdueTicket)) return false;
+            OverdueTicket other = (OverdueTicket) o;
+            return ticketId.equals(other.ticketId) && dueDate.equals(other.dueDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * ticketId.hashCode() + dueDate.hashCode();
+        }
+
+        // Getters
+        public Long getTicketId() { return ticketId; }
+        public LocalDateTime getDueDate() { return dueDate; }
+    }
+}
@@ -2,19 +2,31 @@ package ma.gov.dgh.helpdesk.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.snmp4j.*;
 import org.snmp4j.event.ResponseEvent;
+import org.snmp4j.event.ResponseListener;
 import org.snmp4j.mp.SnmpConstants;
 import org.snmp4j.smi.*;
 import org.snmp4j.transport.DefaultUdpTransportMapping;
+import org.snmp4j.util.DefaultPDUFactory;
+import org.snmp4j.util.TableEvent;
+import org.snmp4j.util.TableListener;
+import org.snmp4j.util.TableUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Service for SNMP operations to gather device information
@@ -52,64 +64,147 @@ public class SnmpService {
     private static final String OID_HR_SYSTEM_PROCESSES = "1.3.6.1.2.1.25.1.6.0";
     private static final String OID_HR_SYSTEM_MAX_PROCESSES = "1.3.6.1.2.1.25.1.7.0";
     
+    // Scalar OIDs fetched together for device information
+    private static final String[] SCALAR_OIDS = {
+        OID_SYSTEM_DESCRIPTION, OID_SYSTEM_NAME, OID_SYSTEM_LOCATION, OID_SYSTEM_CONTACT,
+        OID_SYSTEM_UPTIME, OID_IF_NUMBER, OID_HR_SYSTEM_PROCESSES
+    };
+    
+    @Value("${network.discovery.snmp.walk-interfaces:true}")
+    private boolean walkInterfaces;
+    
+    @Value("${network.discovery.snmp.interface-rows-per-request:20}")
+    private int interfaceRowsPerRequest;
+    
+    @Value("${network.discovery.snmp.max-interfaces:512}")
+    private int maxInterfaces;
+    
+    @Value("${network.discovery.snmp.retries:2}")
+    private int snmpRetries;
+    
     private final ObjectMapper objectMapper = new ObjectMapper();
     
+    // Shared session: every request is multiplexed over one UDP socket
+    private volatile Snmp snmp;
+    
+    /**
+     * Open the shared SNMP session
+     */
+    @PostConstruct
+    public void start() {
+        try {
+            TransportMapping<UdpAddress> transport = new DefaultUdpTransportMapping();
+            Snmp session = new Snmp(transport);
+            session.listen();
+            snmp = session;
+            logger.info("SNMP session listening on {}", transport.getListenAddress());
+        } catch (IOException e) {
+            logger.error("Could not open SNMP session: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Close the shared SNMP session
+     */
+    @PreDestroy
+    public void stop() {
+        Snmp session = snmp;
+        snmp = null;
+        if (session != null) {
+            try {
+                session.close();
+            } catch (IOException e) {
+                logger.debug("Error closing SNMP session: {}", e.getMessage());
+            }
+        }
+    }
+    
     /**
      * Get device information via SNMP
      */
     public SnmpDeviceInfo getDeviceInfo(String ipAddress) {
         try {
-            Snmp snmp = createSnmpSession();
-            Target target = createTarget(ipAddress);
-            
+            return getDeviceInfoAsync(ipAddress).join();
+        } catch (CompletionException e) {
+            logger.debug("SNMP query failed for {}: {}", ipAddress, e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Get device information via SNMP without blocking.
+     * The future completes on the SNMP listener thread, so dependent stages should stay light
+     * (or use the *Async variants with an executor).
+     */
+    public CompletableFuture<SnmpDeviceInfo> getDeviceInfoAsync(String ipAddress) {
+        Target target = createTarget(ipAddress);
+        
+        // Get all scalar values in a single multi-varbind GET
+        return getSnmpValuesAsync(target, SCALAR_OIDS).thenCompose(values -> {
             SnmpDeviceInfo deviceInfo = new SnmpDeviceInfo();
             deviceInfo.setIpAddress(ipAddress);
+            applyScalarValues(deviceInfo, values);
             
-            // Get system information
-            deviceInfo.setSystemDescription(getSnmpValue(snmp, target, OID_SYSTEM_DESCRIPTION));
-            deviceInfo.setSystemName(getSnmpValue(snmp, target, OID_SYSTEM_NAME));
-            deviceInfo.setSystemLocation(getSnmpValue(snmp, target, OID_SYSTEM_LOCATION));
-            deviceInfo.setSystemContact(getSnmpValue(snmp, target, OID_SYSTEM_CONTACT));
-            deviceInfo.setSystemUptime(getSnmpValue(snmp, target, OID_SYSTEM_UPTIME));
-            
-            // Parse manufacturer and model from system description
-            parseManufacturerAndModel(deviceInfo);
-            
-            // Get interface count
-            String ifNumber = getSnmpValue(snmp, target, OID_IF_NUMBER);
-            if (ifNumber != null) {
-                try {
-                    deviceInfo.setInterfaceCount(Integer.parseInt(ifNumber));
-                } catch (NumberFormatException e) {
-                    logger.debug("Could not parse interface count: {}", ifNumber);
-                }
-            }
-            
-            // Get host resources information (if available)
-            String hrProcesses = getSnmpValue(snmp, target, OID_HR_SYSTEM_PROCESSES);
-            if (hrProcesses != null) {
-                deviceInfo.setProcessCount(hrProcesses);
+            // Walk the interface table with GETBULK, only if the device answered SNMP
+            if (values.isEmpty() || !walkInterfaces) {
+                return CompletableFuture.completedFuture(deviceInfo);
             }
-            
-            snmp.close();
-            
-            logger.debug("Retrieved SNMP info for {}: {}", ipAddress, deviceInfo.getSystemDescription());
-            return deviceInfo;
-            
-        } catch (Exception e) {
-            logger.debug("SNMP query failed for {}: {}", ipAddress, e.getMessage());
-            return null;
+            return getInterfacesAsync(target).thenApply(interfaces -> {
+                deviceInfo.setInterfaces(interfaces);
+                logger.debug("Retrieved SNMP info for {}: {}", ipAddress, deviceInfo.getSystemDescription());
+                return deviceInfo;
+            });
+        });
+    }
+    
+    /**
+     * Test SNMP connectivity to a device
+     */
+    public boolean testSnmpConnectivity(String ipAddress) {
+        try {
+            return testSnmpConnectivityAsync(ipAddress).join();
+        } catch (CompletionException e) {
+            return false;
         }
     }
     
     /**
-     * Create SNMP session
+     * Test SNMP connectivity to a device without blocking
      */
-    private Snmp createSnmpSession() throws IOException {
-        TransportMapping<?> transport = new DefaultUdpTransportMapping();
-        Snmp snmp = new Snmp(transport);
-        transport.listen();
-        return snmp;
+    public CompletableFuture<Boolean> testSnmpConnectivityAsync(String ipAddress) {
+        return getSnmpValuesAsync(createTarget(ipAddress), OID_SYSTEM_DESCRIPTION)
+            .thenApply(values -> values.containsKey(OID_SYSTEM_DESCRIPTION));
+    }
+    
+    /**
+     * Fill device information from scalar OID values
+     */
+    private void applyScalarValues(SnmpDeviceInfo deviceInfo, Map<String, String> values) {
+        // System information
+        deviceInfo.setSystemDescription(values.get(OID_SYSTEM_DESCRIPTION));
+        deviceInfo.setSystemName(values.get(OID_SYSTEM_NAME));
+        deviceInfo.setSystemLocation(values.get(OID_SYSTEM_LOCATION));
+        deviceInfo.setSystemContact(values.get(OID_SYSTEM_CONTACT));
+        deviceInfo.setSystemUptime(values.get(OID_SYSTEM_UPTIME));
+        
+        // Parse manufacturer and model from system description
+        parseManufacturerAndModel(deviceInfo);
+        
+        // Interface count
+        String ifNumber = values.get(OID_IF_NUMBER);
+        if (ifNumber != null) {
+            try {
+                deviceInfo.setInterfaceCount(Integer.parseInt(ifNumber));
+            } catch (NumberFormatException e) {
+                logger.debug("Could not parse interface count: {}", ifNumber);
+            }
+        }
+        
+        // Host resources information (if available)
+        String hrProcesses = values.get(OID_HR_SYSTEM_PROCESSES);
+        if (hrProcesses != null) {
+            deviceInfo.setProcessCount(hrProcesses);
+        }
     }
     
     /**
@@ -119,35 +214,157 @@ public class SnmpService {
         CommunityTarget target = new CommunityTarget();
         target.setCommunity(new OctetString(snmpCommunity));
         target.setAddress(GenericAddress.parse("udp:" + ipAddress + "/161"));
-        target.setRetries(2);
+        target.setRetries(snmpRetries);
         target.setTimeout(snmpTimeout);
         target.setVersion(SnmpConstants.version2c);
         return target;
     }
     
     /**
-     * Get SNMP value for a specific OID
+     * Send a request over the shared session.
+     * The future completes with the response PDU, or with null when the request timed out
+     * (after the target's retries); each request carries its own timeout from the target.
      */
-    private String getSnmpValue(Snmp snmp, Target target, String oid) {
+    private CompletableFuture<PDU> sendAsync(PDU pdu, Target target) {
+        CompletableFuture<PDU> future = new CompletableFuture<>();
+        Snmp session = snmp;
+        if (session == null) {
+            future.completeExceptionally(new IOException("SNMP session is not open"));
+            return future;
+        }
+        
+        ResponseListener listener = new ResponseListener() {
+            @Override
+            public <A extends Address> void onResponse(ResponseEvent<A> event) {
+                // Stop retransmissions as soon as the request is answered
+                session.cancel(event.getRequest(), this);
+                if (event.getError() != null) {
+                    future.completeExceptionally(event.getError());
+                } else {
+                    future.complete(event.getResponse());
+                }
+            }
+        };
+        
         try {
-            PDU pdu = new PDU();
+            session.send(pdu, target, null, listener);
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+    
+    /**
+     * Get SNMP values for several OIDs in a single GET request.
+     * OIDs the device does not support (noSuchObject/noSuchInstance) are left out of the result,
+     * and a timeout or transport error yields an empty result.
+     */
+    private CompletableFuture<Map<String, String>> getSnmpValuesAsync(Target target, String... oids) {
+        PDU pdu = new PDU();
+        for (String oid : oids) {
             pdu.add(new VariableBinding(new OID(oid)));
-            pdu.setType(PDU.GET);
-            
-            ResponseEvent event = snmp.send(pdu, target, null);
-            if (event != null && event.getResponse() != null) {
-                PDU response = event.getResponse();
+        }
+        pdu.setType(PDU.GET);
+        
+        return sendAsync(pdu, target).handle((response, error) -> {
+            Map<String, String> values = new HashMap<>();
+            if (error != null) {
+                logger.debug("SNMP GET failed for {}: {}", target.getAddress(), error.getMessage());
+            } else if (response != null) {
                 if (response.getErrorStatus() == 0) {
-                    VariableBinding vb = response.get(0);
-                    if (vb.getVariable() != null && !vb.getVariable().isException()) {
-                        return vb.getVariable().toString();
+                    for (VariableBinding vb : response.getVariableBindings()) {
+                        if (vb.getVariable() != null && !vb.getVariable().isException()) {
+                            values.put(vb.getOid().toDottedString(), vb.getVariable().toString());
+                        }
                     }
+                } else {
+                    logger.debug("SNMP GET error from {}: {}", target.getAddress(), response.getErrorStatusText());
                 }
             }
-        } catch (IOException e) {
-            logger.debug("SNMP GET failed for OID {}: {}", oid, e.getMessage());
+            return values;
+        });
+    }
+    
+    /**
+     * Walk the ifTable columns (description, type, speed, physical address) using GETBULK.
+     * A failed or timed out walk completes with the rows received so far.
+     */
+    private CompletableFuture<List<SnmpInterfaceInfo>> getInterfacesAsync(Target target) {
+        CompletableFuture<List<SnmpInterfaceInfo>> future = new CompletableFuture<>();
+        List<SnmpInterfaceInfo> interfaces = Collections.synchronizedList(new ArrayList<>());
+        
+        Snmp session = snmp;
+        if (session == null) {
+            future.complete(interfaces);
+            return future;
         }
-        return null;
+        
+        TableUtils tableUtils = new TableUtils(session, new DefaultPDUFactory(PDU.GETBULK));
+        tableUtils.setMaxNumRowsPerPDU(interfaceRowsPerRequest);
+        OID[] columns = {
+            new OID(OID_IF_DESCR), new OID(OID_IF_TYPE), new OID(OID_IF_SPEED), new OID(OID_IF_PHYS_ADDRESS)
+        };
+        
+        TableListener listener = new TableListener() {
+            private volatile boolean finished;
+            
+            @Override
+            public boolean next(TableEvent row) {
+                VariableBinding[] values = row.getColumns();
+                if (values != null) {
+                    interfaces.add(toInterfaceInfo(row.getIndex(), values));
+                }
+                if (interfaces.size() >= maxInterfaces) {
+                    finished = true;
+                    future.complete(interfaces);
+                    return false;
+                }
+                return true;
+            }
+            
+            @Override
+            public void finished(TableEvent event) {
+                if (event.isError()) {
+                    logger.debug("SNMP ifTable walk failed for {}: {}", target.getAddress(), event.getErrorMessage());
+                }
+                finished = true;
+                future.complete(interfaces);
+            }
+            
+            @Override
+            public boolean isFinished() {
+                return finished;
+            }
+        };
+        
+        try {
+            tableUtils.getTable(target, columns, listener, null, null, null);
+        } catch (RuntimeException e) {
+            logger.debug("SNMP ifTable walk failed for {}: {}", target.getAddress(), e.getMessage());
+            future.complete(interfaces);
+        }
+        return future;
+    }
+    
+    private SnmpInterfaceInfo toInterfaceInfo(OID index, VariableBinding[] values) {
+        SnmpInterfaceInfo info = new SnmpInterfaceInfo();
+        info.setIndex(index != null ? index.last() : null);
+        info.setDescription(columnValue(values, 0));
+        info.setType(columnValue(values, 1));
+        info.setSpeed(columnValue(values, 2));
+        if (values.length > 3 && values[3] != null && values[3].getVariable() instanceof OctetString mac
+                && mac.length() > 0) {
+            info.setPhysicalAddress(mac.toHexString(':'));
+        }
+        return info;
+    }
+    
+    private String columnValue(VariableBinding[] values, int column) {
+        if (values.length <= column || values[column] == null) {
+            return null;
+        }
+        Variable variable = values[column].getVariable();
+        return variable != null && !variable.isException() ? variable.toString() : null;
     }
     
     /**
@@ -230,23 +447,6 @@ public class SnmpService {
             deviceInfo.setManufacturer("Debian");
         }
     }
-    
-    /**
-     * Test SNMP connectivity to a device
-     */
-    public boolean testSnmpConnectivity(String ipAddress) {
-        try {
-            Snmp snmp = createSnmpSession();
-            Target target = createTarget(ipAddress);
-            
-            String sysDescr = getSnmpValue(snmp, target, OID_SYSTEM_DESCRIPTION);
-            snmp.close();
-            
-            return sysDescr != null;
-        } catch (Exception e) {
-            return false;
-        }
-    }
 }
 
 /**
@@ -265,6 +465,7 @@ class SnmpDeviceInfo {
     private String osVersion;
     private Integer interfaceCount;
     private String processCount;
+    private List<SnmpInterfaceInfo> interfaces = new ArrayList<>();
     
     // Getters and setters
     public String getIpAddress() { return ipAddress; }
@@ -303,6 +504,9 @@ class SnmpDeviceInfo {
     public String getProcessCount() { return processCount; }
     public void setProcessCount(String processCount) { this.processCount = processCount; }
     
+    public List<SnmpInterfaceInfo> getInterfaces() { return interfaces; }
+    public void setInterfaces(List<SnmpInterfaceInfo> interfaces) { this.interfaces = interfaces; }
+    
     /**
      * Convert to JSON string for storage
      */
@@ -317,9 +521,39 @@ class SnmpDeviceInfo {
             data.put("systemUptime", systemUptime);
             data.put("interfaceCount", interfaceCount);
             data.put("processCount", processCount);
+            if (interfaces != null && !interfaces.isEmpty()) {
+                data.put("interfaces", interfaces);
+            }
             return mapper.writeValueAsString(data);
         } catch (JsonProcessingException e) {
             return "{}";
         }
     }
 }
+
+/**
+ * Class to hold SNMP interface (ifTable row) information
+ */
+class SnmpInterfaceInfo {
+    private Integer index;
+    private String description;
+    private String type;
+    private String speed;
+    private String physicalAddress;
+    
+    // Getters and setters
+    public Integer getIndex() { return index; }
+    public void setIndex(Integer index) { this.index = index; }
+    
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    
+    public String getSpeed() { return speed; }
+    public void setSpeed(String speed) { this.speed = speed; }
+    
+    public String getPhysicalAddress() { return physicalAddress; }
+    public void setPhysicalAddress(String physicalAddress) { this.physicalAddress = physicalAddress; }
+}
@@ -0,0 +1,309 @@
+package ma.gov.dgh.helpdesk.service;
+
+import ma.gov.dgh.helpdesk.entity.*;
+import ma.gov.dgh.helpdesk.repository.EquipmentRepository;
+import ma.gov.dgh.helpdesk.repository.StatisticsCounterRepository;
+import ma.gov.dgh.helpdesk.repository.TicketRepository;
+import ma.gov.dgh.helpdesk.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Service maintaining the materialized dashboard counters.
+ * Ticket, user and equipment services report every state change here, in their own transaction,
+ * so reading the dashboard statistics is a single lookup on a small table.
+ */
+@Service
+@Transactional
+public class StatisticsCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsCounterService.class);
+
+    private final StatisticsCounterRepository statisticsCounterRepository;
+    private final TicketRepository ticketRepository;
+    private final UserRepository userRepository;
+    private final EquipmentRepository equipmentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public StatisticsCounterService(StatisticsCounterRepository statisticsCounterRepository,
+                                    TicketRepository ticketRepository,
+                                    UserRepository userRepository,
+                                    EquipmentRepository equipmentRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.statisticsCounterRepository = statisticsCounterRepository;
+        this.ticketRepository = ticketRepository;
+        this.userRepository = userRepository;
+        this.equipmentRepository = equipmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Record a created or updated ticket
+     */
+    public void recordTicketChange(Ticket ticket) {
+        Set<String> keys = StatisticsCounter.keysOf(ticket);
+        applyChange(ticket.getStatisticsKeys(), keys);
+        ticket.setStatisticsKeys(keys);
+    }
+
+    /**
+     * Record a set of updated tickets (bulk operations), with one counter update per changed key
+     */
+    public void recordTicketChanges(Collection<Ticket> tickets) {
+        Map<String, Long> deltas = new TreeMap<>();
+        for (Ticket ticket : tickets) {
+            Set<String> keys = StatisticsCounter.keysOf(ticket);
+            addDeltas(deltas, ticket.getStatisticsKeys(), keys);
+            ticket.setStatisticsKeys(keys);
+        }
+        applyDeltas(deltas);
+    }
+    
+    /**
+     * Record a deleted ticket
+     */
+    public void recordTicketRemoval(Ticket ticket) {
+        applyChange(StatisticsCounter.keysOf(ticket), Set.of());
+    }
+
+    /**
+     * Record a created or updated user
+     */
+    public void recordUserChange(User user) {
+        Set<String> keys = StatisticsCounter.keysOf(user);
+        applyChange(user.getStatisticsKeys(), keys);
+        user.setStatisticsKeys(keys);
+    }
+
+    /**
+     * Record a created or updated piece of equipment
+     */
+    public void recordEquipmentChange(Equipment equipment) {
+        Set<String> keys = StatisticsCounter.keysOf(equipment);
+        applyChange(equipment.getStatisticsKeys(), keys);
+        equipment.setStatisticsKeys(keys);
+    }
+
+    /**
+     * Record a deleted piece of equipment
+     */
+    public void recordEquipmentRemoval(Equipment equipment) {
+        applyChange(StatisticsCounter.keysOf(equipment), Set.of());
+    }
+
+    /**
+     * Get all counter values in one read
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> getCounters() {
+        Map<String, Long> counters = new HashMap<>();
+        for (StatisticsCounter counter : statisticsCounterRepository.findAll()) {
+            counters.put(counter.getCounterKey(), counter.getCounterValue());
+        }
+        return counters;
+    }
+
+    /**
+     * Build ticket statistics from counter values
+     */
+    public static TicketService.TicketStatistics toTicketStatistics(Map<String, Long> counters) {
+        return new TicketService.TicketStatistics(
+            counters.getOrDefault(StatisticsCounter.TICKETS_TOTAL, 0L),
+            counters.getOrDefault(StatisticsCounter.TICKETS_STATUS_PREFIX + TicketStatus.OPEN.name(), 0L),
+            counters.getOrDefault(StatisticsCounter.TICKETS_STATUS_PREFIX + TicketStatus.IN_PROGRESS.name(), 0L),
+            counters.getOrDefault(StatisticsCounter.TICKETS_STATUS_PREFIX + TicketStatus.RESOLVED.name(), 0L),
+            counters.getOrDefault(StatisticsCounter.TICKETS_STATUS_PREFIX + TicketStatus.CLOSED.name(), 0L),
+            counters.getOrDefault(StatisticsCounter.TICKETS_UNASSIGNED, 0L),
+            counters.getOrDefault(StatisticsCounter.TICKETS_ESCALATED, 0L));
+    }
+
+    /**
+     * Build user statistics from counter values
+     */
+    public static UserService.UserStatistics toUserStatistics(Map<String, Long> counters) {
+        return new UserService.UserStatistics(
+            counters.getOrDefault(StatisticsCounter.USERS_TOTAL, 0L),
+            counters.getOrDefault(StatisticsCounter.USERS_ACTIVE, 0L),
+            counters.getOrDefault(StatisticsCounter.USERS_ROLE_PREFIX + UserRole.ADMIN.name(), 0L),
+            counters.getOrDefault(StatisticsCounter.USERS_ROLE_PREFIX + UserRole.TECHNICIAN.name(), 0L),
+            counters.getOrDefault(StatisticsCounter.USERS_ROLE_PREFIX + UserRole.EMPLOYEE.name(), 0L));
+    }
+
+    /**
+     * Build equipment statistics from counter values
+     */
+    public static EquipmentService.EquipmentStatistics toEquipmentStatistics(Map<String, Long> counters) {
+        return new EquipmentService.EquipmentStatistics(
+            counters.getOrDefault(StatisticsCounter.EQUIPMENT_TOTAL, 0L),
+            counters.getOrDefault(StatisticsCounter.EQUIPMENT_STATUS_PREFIX + EquipmentStatus.ONLINE.name(), 0L),
+            counters.getOrDefault(StatisticsCounter.EQUIPMENT_STATUS_PREFIX + EquipmentStatus.OFFLINE.name(), 0L),
+            counters.getOrDefault(StatisticsCounter.EQUIPMENT_MANAGED, 0L));
+    }
+
+    /**
+     * Recompute every counter from GROUP BY aggregates.
+     * Runs at startup and periodically to correct any drift (e.g. rows changed outside the services).
+     * Each group of counters is locked while its aggregate is read and written, so increments committed
+     * concurrently are either counted by the aggregate or applied after the new value, never lost.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${statistics.counters.reconcile-interval:3600000}",
+               fixedDelayString = "${statistics.counters.reconcile-interval:3600000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuildCounters() {
+        Map<String, Long> ticketCounters = transactionTemplate.execute(status -> rebuildTicketCounters());
+        Map<String, Long> userCounters = transactionTemplate.execute(status -> rebuildUserCounters());
+        Map<String, Long> equipmentCounters = transactionTemplate.execute(status -> rebuildEquipmentCounters());
+
+        logger.info("Statistics counters rebuilt: {} tickets, {} users, {} equipment",
+            ticketCounters.get(StatisticsCounter.TICKETS_TOTAL),
+            userCounters.get(StatisticsCounter.USERS_TOTAL),
+            equipmentCounters.get(StatisticsCounter.EQUIPMENT_TOTAL));
+    }
+
+    // Private helper methods
+
+    private Map<String, Long> rebuildTicketCounters() {
+        // Every known key starts at zero so counters for empty groups are reset too
+        Map<String, Long> counters = new TreeMap<>();
+        counters.put(StatisticsCounter.TICKETS_TOTAL, 0L);
+        counters.put(StatisticsCounter.TICKETS_UNASSIGNED, 0L);
+        counters.put(StatisticsCounter.TICKETS_ESCALATED, 0L);
+        for (TicketStatus status : TicketStatus.values()) {
+            counters.put(StatisticsCounter.TICKETS_STATUS_PREFIX + status.name(), 0L);
+        }
+        lockCounters(counters.keySet());
+
+        for (Object[] row : ticketRepository.getTicketCounterAggregates()) {
+            TicketStatus status = (TicketStatus) row[0];
+            long count = (Long) row[2];
+            long assigned = (Long) row[3];
+            counters.merge(StatisticsCounter.TICKETS_TOTAL, count, Long::sum);
+            counters.merge(StatisticsCounter.TICKETS_UNASSIGNED, count - assigned, Long::sum);
+            if (status != null) {
+                counters.merge(StatisticsCounter.TICKETS_STATUS_PREFIX + status.name(), count, Long::sum);
+            }
+            if (Boolean.TRUE.equals(row[1])) {
+                counters.merge(StatisticsCounter.TICKETS_ESCALATED, count, Long::sum);
+            }
+        }
+        writeCounters(counters);
+        return counters;
+    }
+
+    private Map<String, Long> rebuildUserCounters() {
+        Map<String, Long> counters = new TreeMap<>();
+        counters.put(StatisticsCounter.USERS_TOTAL, 0L);
+        counters.put(StatisticsCounter.USERS_ACTIVE, 0L);
+        for (UserRole role : UserRole.values()) {
+            counters.put(StatisticsCounter.USERS_ROLE_PREFIX + role.name(), 0L);
+        }
+        lockCounters(counters.keySet());
+
+        for (Object[] row : userRepository.getUserCounterAggregates()) {
+            UserRole role = (UserRole) row[0];
+            long count = (Long) row[2];
+            counters.merge(StatisticsCounter.USERS_TOTAL, count, Long::sum);
+            if (role != null) {
+                counters.merge(StatisticsCounter.USERS_ROLE_PREFIX + role.name(), count, Long::sum);
+            }
+            if (Boolean.TRUE.equals(row[1])) {
+                counters.merge(StatisticsCounter.USERS_ACTIVE, count, Long::sum);
+            }
+        }
+        writeCounters(counters);
+        return counters;
+    }
+
+    private Map<String, Long> rebuildEquipmentCounters() {
+        Map<String, Long> counters = new TreeMap<>();
+        counters.put(StatisticsCounter.EQUIPMENT_TOTAL, 0L);
+        counters.put(StatisticsCounter.EQUIPMENT_MANAGED, 0L);
+        for (EquipmentStatus status : EquipmentStatus.values()) {
+            counters.put(StatisticsCounter.EQUIPMENT_STATUS_PREFIX + status.name(), 0L);
+        }
+        lockCounters(counters.keySet());
+
+        for (Object[] row : equipmentRepository.getEquipmentCounterAggregates()) {
+            EquipmentStatus status = (EquipmentStatus) row[0];
+            long count = (Long) row[2];
+            counters.merge(StatisticsCounter.EQUIPMENT_TOTAL, count, Long::sum);
+            if (status != null) {
+                counters.merge(StatisticsCounter.EQUIPMENT_STATUS_PREFIX + status.name(), count, Long::sum);
+            }
+            if (Boolean.TRUE.equals(row[1])) {
+                counters.merge(StatisticsCounter.EQUIPMENT_MANAGED, count, Long::sum);
+            }
+        }
+        writeCounters(counters);
+        return counters;
+    }
+
+    private void lockCounters(Set<String> keys) {
+        // Increments of these counters wait until the rebuilt values are committed; the aggregate read after
+        // this sees every change whose increment was committed before
+        statisticsCounterRepository.findByCounterKeyInOrderByCounterKey(keys);
+    }
+
+    private void writeCounters(Map<String, Long> counters) {
+        LocalDateTime now = LocalDateTime.now();
+        counters.forEach((key, value) -> {
+            if (statisticsCounterRepository.setValue(key, value, now) == 0) {
+                statisticsCounterRepository.save(new StatisticsCounter(key, value));
+            }
+        });
+    }
+
+    private void applyChange(Set<String> previousKeys, Set<String> currentKeys) {
+        Map<String, Long> deltas = new TreeMap<>();
+        addDeltas(deltas, previousKeys, currentKeys);
+        applyDeltas(deltas);
+    }
+
+    private void addDeltas(Map<String, Long> deltas, Set<String> previousKeys, Set<String> currentKeys) {
+        Set<String> before = previousKeys != null ? previousKeys : Set.of();
+        for (String key : currentKeys) {
+            if (!before.contains(key)) {
+                deltas.merge(key, 1L, Long::sum);
+            }
+        }
+        for (String key : before) {
+            if (!currentKeys.contains(key)) {
+                deltas.merge(key, -1L, Long::sum);
+            }
+        }
+    }
+
+    private void applyDeltas(Map<String, Long> deltas) {
+        // Counters are always locked in key order (deltas is sorted), so concurrent changes and rebuilds
+        // cannot deadlock on them
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                increment(key, delta);
+            }
+        });
+    }
+
+    private void increment(String key, long delta) {
+        if (statisticsCounterRepository.increment(key, delta, LocalDateTime.now()) == 0) {
+            statisticsCounterRepository.save(new StatisticsCounter(key, delta));
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package ma.gov.dgh.helpdesk.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Service sweeping IPv4 CIDR ranges for live hosts.
+ * Probes run concurrently on the sweep executor, bounded by an in-flight limit and a probe rate cap.
+ */
+@Service
+public class SubnetSweepService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubnetSweepService.class);
+
+    private final ThreadPoolTaskExecutor sweepExecutor;
+
+    @Value("${network.discovery.sweep.max-in-flight:256}")
+    private int maxInFlight;
+
+    @Value("${network.discovery.sweep.rate-per-second:500}")
+    private int ratePerSecond;
+
+    @Value("${network.discovery.sweep.timeout:1000}")
+    private int probeTimeout;
+
+    @Value("${network.discovery.sweep.max-hosts-per-subnet:65536}")
+    private long maxHostsPerSubnet;
+
+    // Latest sweep progress per subnet
+    private final Map<String, SweepProgress> progressBySubnet = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SubnetSweepService(@Qualifier("networkSweepExecutor") ThreadPoolTaskExecutor sweepExecutor) {
+        this.sweepExecutor = sweepExecutor;
+    }
+
+    /**
+     * Sweep a subnet, calling onAlive (from sweep threads) for every host that answers.
+     * Blocks until every probe of the subnet has completed.
+     */
+    public SweepProgress sweep(String cidr, Consumer<String> onAlive) throws InterruptedException {
+        SubnetRange range = SubnetRange.parse(cidr);
+        long hostCount = range.getHostCount();
+        if (hostCount > maxHostsPerSubnet) {
+            logger.warn("Subnet {} has {} hosts, only the first {} will be swept (network.discovery.sweep.max-hosts-per-subnet)",
+                cidr, hostCount, maxHostsPerSubnet);
+            hostCount = maxHostsPerSubnet;
+        }
+
+        SweepProgress progress = new SweepProgress(range.toString(), hostCount);
+        progressBySubnet.put(range.toString(), progress);
+        logger.info("Sweeping subnet {} ({} hosts, {} in flight, {} probes/s)", range, hostCount, maxInFlight, ratePerSecond);
+
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long intervalNanos = ratePerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / ratePerSecond : 0;
+        long nextProbeAt = System.nanoTime();
+        long logStep = Math.max(hostCount / 10, 1);
+
+        for (long i = 0; i < hostCount; i++) {
+            // Rate cap: space probe starts evenly
+            if (intervalNanos > 0) {
+                long wait = nextProbeAt - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                nextProbeAt = Math.max(nextProbeAt, System.nanoTime() - intervalNanos) + intervalNanos;
+            }
+
+            inFlight.acquire();
+            String ip = SubnetRange.toDottedQuad(range.getFirstHost() + i);
+            try {
+                sweepExecutor.execute(() -> {
+                    try {
+                        if (isAlive(ip)) {
+                            progress.aliveHosts.incrementAndGet();
+                            onAlive.accept(ip);
+                        }
+                    } catch (Exception e) {
+                        logger.debug("Probe of {} failed: {}", ip, e.getMessage());
+                    } finally {
+                        long probed = progress.probedHosts.incrementAndGet();
+                        if (probed % logStep == 0) {
+                            logger.info("Subnet {}: {}/{} hosts probed, {} alive",
+                                progress.getSubnet(), probed, progress.getTotalHosts(), progress.getAliveHosts());
+                        }
+                        inFlight.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                inFlight.release();
+                throw e;
+            }
+        }
+
+        // Wait for the remaining in-flight probes
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+
+        progress.completedAt = LocalDateTime.now();
+        logger.info("Subnet {} swept: {} alive of {} hosts", progress.getSubnet(), progress.getAliveHosts(), hostCount);
+        return progress;
+    }
+
+    /**
+     * Get the latest sweep progress of every subnet
+     */
+    public List<SweepProgress> getProgress() {
+        return new ArrayList<>(progressBySubnet.values());
+    }
+
+    private boolean isAlive(String ip) {
+        try {
+            return InetAddress.getByName(ip).isReachable(probeTimeout);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Inner class for an IPv4 CIDR range
+     */
+    public static class SubnetRange {
+        private final long network;
+        private final int prefixLength;
+        private final long firstHost;
+        private final long lastHost;
+
+        private SubnetRange(long network, int prefixLength) {
+            this.network = network;
+            this.prefixLength = prefixLength;
+            long broadcast = network | (0xFFFFFFFFL >>> prefixLength);
+            if (prefixLength <= 30) {
+                // Skip the network and broadcast addresses
+                this.firstHost = network + 1;
+                this.lastHost = broadcast - 1;
+            } else {
+                this.firstHost = network;
+                this.lastHost = broadcast;
+            }
+        }
+
+        /**
+         * Parse "a.b.c.d/n" (a bare address is treated as /32)
+         */
+        public static SubnetRange parse(String cidr) {
+            String value = cidr.trim();
+            int slash = value.indexOf('/');
+            String address = slash >= 0 ? value.substring(0, slash) : value;
+            int prefixLength = slash >= 0 ? parseNumber(value.substring(slash + 1), 32) : 32;
+            if (prefixLength < 0) {
+                throw new IllegalArgumentException("Invalid CIDR prefix length: " + cidr);
+            }
+
+            // Keep trailing empty parts so "10.0.0.1." is rejected
+            String[] octets = address.split("\\.", -1);
+            if (octets.length != 4) {
+                throw new IllegalArgumentException("Invalid IPv4 address: " + cidr);
+            }
+            long ip = 0;
+            for (String octet : octets) {
+                int part = parseNumber(octet, 255);
+                if (part < 0) {
+                    throw new IllegalArgumentException("Invalid IPv4 address: " + cidr);
+                }
+                ip = (ip << 8) | part;
+            }
+
+            long mask = prefixLength == 0 ? 0 : (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+            return new SubnetRange(ip & mask, prefixLength);
+        }
+
+        /**
+         * Parse a plain decimal number up to max (no sign, at most 3 digits); -1 if invalid
+         */
+        private static int parseNumber(String text, int max) {
+            if (text.isEmpty() || text.length() > 3 || !text.chars().allMatch(c -> c >= '0' && c <= '9')) {
+                return -1;
+            }
+            int number = Integer.parseInt(text);
+            return number <= max ? number : -1;
+        }
+
+        static String toDottedQuad(long ip) {
+            return ((ip >> 24) & 0xFF) + "." + ((ip >> 16) & 0xFF) + "." + ((ip >> 8) & 0xFF) + "." + (ip & 0xFF);
+        }
+
+        public long getFirstHost() { return firstHost; }
+        public long getLastHost() { return lastHost; }
+        public long getHostCount() { return lastHost - firstHost + 1; }
+        public int getPrefixLength() { return prefixLength; }
+
+        @Override
+        public String toString() {
+            return toDottedQuad(network) + "/" + prefixLength;
+        }
+    }
+
+    /**
+     * Inner class for the progress of a subnet sweep
+     */
+    public static class SweepProgress {
+        private final String subnet;
+        private final long totalHosts;
+        private final AtomicLong probedHosts = new AtomicLong();
+        private final AtomicLong aliveHosts = new AtomicLong();
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private volatile LocalDateTime completedAt;
+
+        public SweepProgress(String subnet, long totalHosts) {
+            this.subnet = subnet;
+            this.totalHosts = totalHosts;
+        }
+
+        // Getters
+        public String getSubnet() { return subnet; }
+        public long getTotalHosts() { return totalHosts; }
+        public long getProbedHosts() { return probedHosts.get(); }
+        public long getAliveHosts() { return aliveHosts.get(); }
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public LocalDateTime getCompletedAt() { return completedAt; }
+        public boolean isCompleted() { return completedAt != null; }
+        public double getPercentComplete() {
+            return totalHosts > 0 ? (double) probedHosts.get() / totalHosts * 100 : 100;
+        }
+    }
+}
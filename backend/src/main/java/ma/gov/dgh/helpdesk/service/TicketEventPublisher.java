@@ -0,0 +1,271 @@
+package ma.gov.dgh.helpdesk.service;
+
+import jakarta.annotation.PreDestroy;
+import ma.gov.dgh.helpdesk.entity.*;
+import ma.gov.dgh.helpdesk.exception.BusinessException;
+import ma.gov.dgh.helpdesk.utils.SecurityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes ticket changes to Server-Sent Events subscribers.
+ * TicketService publishes after commit; events are sent in order from a single dispatch thread
+ * and each subscriber only receives events for tickets it can access (same rules as SecurityUtils.canAccessTicket).
+ * A user's streams are closed when the user changes, so access is always judged on their current role.
+ * Events are compact: clients re-fetch the tickets they care about instead of polling every list.
+ */
+@Component
+public class TicketEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketEventPublisher.class);
+
+    /**
+     * Kind of ticket change
+     */
+    public enum TicketEventType {
+        CREATED,
+        UPDATED,
+        ASSIGNED,
+        STATUS_CHANGED,
+        ESCALATED,
+        SLA_BREACHED,
+        COMMENTED,
+        DELETED
+    }
+
+    private final Executor dispatchExecutor;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Value("${ticket.stream.timeout:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${ticket.stream.max-subscribers:1000}")
+    private int maxSubscribers;
+
+    @Value("${ticket.stream.retry-after:30}")
+    private long retryAfterSeconds;
+
+    @Autowired
+    public TicketEventPublisher(@Qualifier("ticketEventExecutor") Executor dispatchExecutor) {
+        this.dispatchExecutor = dispatchExecutor;
+    }
+
+    /**
+     * Open a stream for a user; the emitter removes itself when the connection ends.
+     * Throws ServiceBusyException when the maximum number of streams is open.
+     */
+    public SseEmitter subscribe(User user) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new BusinessException.ServiceBusyException("Too many ticket stream subscribers", retryAfterSeconds);
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, user);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        // Tell the client where the feed starts so it knows which deltas to fetch after a reconnect
+        send(subscriber, SseEmitter.event().name("connected").data(LocalDateTime.now().toString()));
+        return emitter;
+    }
+
+    /**
+     * Publish a ticket change once the current transaction commits (immediately without a transaction)
+     */
+    public void publish(TicketEventType type, Ticket ticket) {
+        publish(new TicketEvent(type, ticket, null, null, false));
+    }
+
+    /**
+     * Publish a ticket change that may have moved it away from its previous assignee,
+     * who still receives this last event so the ticket can leave their queue
+     */
+    public void publish(TicketEventType type, Ticket ticket, User previousAssignee) {
+        publish(new TicketEvent(type, ticket, previousAssignee != null ? previousAssignee.getId() : null, null, false));
+    }
+
+    /**
+     * Publish a new comment once the current transaction commits.
+     * Internal comments are not announced to employees.
+     */
+    public void publishComment(Ticket ticket, TicketComment comment) {
+        publish(new TicketEvent(TicketEventType.COMMENTED, ticket, null, comment.getId(),
+            Boolean.TRUE.equals(comment.getIsInternal())));
+    }
+
+    /**
+     * Close a user's streams once the current transaction commits (immediately without a transaction).
+     * Called when the user is changed, so a demoted or deactivated user has to reconnect through the
+     * normal authentication path instead of receiving events authorized with their previous role.
+     */
+    public void closeUserStreams(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        afterCommit(() -> subscribers.removeIf(subscriber -> {
+            if (!userId.equals(subscriber.user.getId())) {
+                return false;
+            }
+            subscriber.emitter.complete();
+            return true;
+        }));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Keep idle connections open through proxies
+     */
+    @Scheduled(fixedDelayString = "${ticket.stream.heartbeat-interval:25000}")
+    public void sendHeartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        execute(() -> subscribers.forEach(subscriber -> send(subscriber, SseEmitter.event().comment("keepalive"))));
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    // Private helper methods
+
+    private void publish(TicketEvent event) {
+        afterCommit(() -> execute(() -> dispatch(event)));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            dispatchExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Ticket event dispatch queue full, dropping event");
+        }
+    }
+
+    private void dispatch(TicketEvent event) {
+        long id = sequence.incrementAndGet();
+        for (Subscriber subscriber : subscribers) {
+            if (!canReceive(subscriber.user, event)) {
+                continue;
+            }
+            send(subscriber, SseEmitter.event()
+                .id(Long.toString(id))
+                .name(event.getType().name())
+                .data(event, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private boolean canReceive(User user, TicketEvent event) {
+        if (event.internal && user.getRole() == UserRole.EMPLOYEE) {
+            return false;
+        }
+        return SecurityUtils.canAccessTicket(user, event.createdById, event.getAssignedToId())
+            || SecurityUtils.canAccessTicket(user, event.createdById, event.previousAssignedToId);
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the container completes the emitter
+            subscribers.remove(subscriber);
+            logger.debug("Dropping ticket stream subscriber {}: {}", subscriber.user.getLdapUsername(), e.getMessage());
+        }
+    }
+
+    /**
+     * Open SSE connection with the user it was opened for
+     */
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final User user;
+
+        Subscriber(SseEmitter emitter, User user) {
+            this.emitter = emitter;
+            this.user = user;
+        }
+    }
+
+    /**
+     * Inner class for a ticket change event, snapshotted at publish time
+     */
+    public static class TicketEvent {
+        private final TicketEventType type;
+        private final Long ticketId;
+        private final TicketStatus status;
+        private final TicketPriority priority;
+        private final TicketCategory category;
+        private final Long assignedToId;
+        private final Boolean isEscalated;
+        private final Long commentId;
+        private final LocalDateTime updatedAt;
+        private final LocalDateTime occurredAt = LocalDateTime.now();
+        private final Long createdById;
+        private final Long previousAssignedToId;
+        private final boolean internal;
+
+        public TicketEvent(TicketEventType type, Ticket ticket, Long previousAssignedToId, Long commentId,
+                           boolean internal) {
+            this.type = type;
+            this.ticketId = ticket.getId();
+            this.status = ticket.getStatus();
+            this.priority = ticket.getPriority();
+            this.category = ticket.getCategory();
+            this.assignedToId = ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null;
+            this.isEscalated = ticket.getIsEscalated();
+            this.commentId = commentId;
+            this.updatedAt = ticket.getUpdatedAt();
+            this.createdById = ticket.getCreatedBy() != null ? ticket.getCreatedBy().getId() : null;
+            this.previousAssignedToId = previousAssignedToId;
+            this.internal = internal;
+        }
+
+        // Getters
+        public TicketEventType getType() { return type; }
+        public Long getTicketId() { return ticketId; }
+        public TicketStatus getStatus() { return status; }
+        public TicketPriority getPriority() { return priority; }
+        public TicketCategory getCategory() { return category; }
+        public Long getAssignedToId() { return assignedToId; }
+        public Boolean getIsEscalated() { return isEscalated; }
+        public Long getCommentId() { return commentId; }
+        public LocalDateTime getUpdatedAt() { return updatedAt; }
+        public LocalDateTime getOccurredAt() { return occurredAt; }
+    }
+}
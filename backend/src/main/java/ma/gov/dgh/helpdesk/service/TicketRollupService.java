@@ -0,0 +1,302 @@
+package ma.gov.dgh.helpdesk.service;
+
+import ma.gov.dgh.helpdesk.entity.*;
+import ma.gov.dgh.helpdesk.repository.TicketDailyRollupRepository;
+import ma.gov.dgh.helpdesk.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Savepoint;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service maintaining the daily ticket rollup (created, resolved, escalated and SLA breached counts
+ * per day, status, priority, category and assignee).
+ * TicketService reports every ticket change here within the transaction that changes the ticket, so the
+ * rollup deltas commit or roll back with the change, and trend charts read one row per day and dimension
+ * combination instead of scanning tickets. A backfill job rebuilds day ranges
+ * from the tickets table, at startup when the rollup is empty and nightly for recent days.
+ */
+@Service
+@Transactional
+public class TicketRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketRollupService.class);
+
+    private final TicketDailyRollupRepository rollupRepository;
+    private final TicketRepository ticketRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ticket.rollup.backfill-chunk-days:31}")
+    private int backfillChunkDays;
+
+    @Value("${ticket.rollup.reconcile-days:7}")
+    private int reconcileDays;
+
+    @Autowired
+    public TicketRollupService(TicketDailyRollupRepository rollupRepository, TicketRepository ticketRepository,
+                               JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.ticketRepository = ticketRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Record a created or updated ticket
+     */
+    public void recordTicketChange(Ticket ticket) {
+        Set<TicketDailyRollup.Contribution> contributions = TicketDailyRollup.contributionsOf(ticket);
+        applyChange(ticket.getRollupContributions(), contributions);
+        ticket.setRollupContributions(contributions);
+    }
+
+    /**
+     * Record a set of updated tickets (bulk operations), with one update per changed rollup row
+     */
+    public void recordTicketChanges(Collection<Ticket> tickets) {
+        Map<String, long[]> deltas = new HashMap<>();
+        Map<String, TicketDailyRollup.Contribution> rows = new HashMap<>();
+        for (Ticket ticket : tickets) {
+            Set<TicketDailyRollup.Contribution> contributions = TicketDailyRollup.contributionsOf(ticket);
+            addDeltas(deltas, rows, ticket.getRollupContributions(), contributions);
+            ticket.setRollupContributions(contributions);
+        }
+        applyDeltas(deltas, rows);
+    }
+
+    /**
+     * Record a deleted ticket
+     */
+    public void recordTicketRemoval(Ticket ticket) {
+        applyChange(TicketDailyRollup.contributionsOf(ticket), Set.of());
+    }
+
+    /**
+     * Get daily totals between two days (inclusive), one entry per day including days without tickets
+     */
+    @Transactional(readOnly = true)
+    public List<DailyTrend> getDailyTrend(LocalDate from, LocalDate to, TicketStatus status, TicketPriority priority,
+                                          TicketCategory category, Long assigneeId) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Trend start must not be after its end");
+        }
+        Map<LocalDate, DailyTrend> trend = new LinkedHashMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            trend.put(day, new DailyTrend(day, 0, 0, 0, 0));
+        }
+        for (Object[] row : rollupRepository.getDailyTotals(from, to, status, priority, category, assigneeId)) {
+            LocalDate day = (LocalDate) row[0];
+            trend.put(day, new DailyTrend(day, toLong(row[1]), toLong(row[2]), toLong(row[3]), toLong(row[4])));
+        }
+        return new ArrayList<>(trend.values());
+    }
+
+    /**
+     * Rebuild the rollup rows of a day range (inclusive) from the tickets table,
+     * one chunk of days per transaction. Returns the number of rows written.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long backfill(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Backfill start must not be after its end");
+        }
+        long start = System.currentTimeMillis();
+        long written = 0;
+        for (LocalDate chunkStart = from; !chunkStart.isAfter(to); chunkStart = chunkStart.plusDays(backfillChunkDays)) {
+            LocalDate chunkEnd = chunkStart.plusDays(backfillChunkDays - 1L);
+            LocalDate last = chunkEnd.isAfter(to) ? to : chunkEnd;
+            LocalDate first = chunkStart;
+            Integer rows = transactionTemplate.execute(status -> rebuildRange(first, last));
+            written += rows != null ? rows : 0;
+        }
+        logger.info("Ticket rollup backfilled from {} to {}: {} rows in {} ms",
+            from, to, written, System.currentTimeMillis() - start);
+        return written;
+    }
+
+    /**
+     * Backfill the whole ticket history once the application is ready, if the rollup is empty
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfillOnStartup() {
+        if (rollupRepository.count() > 0) {
+            return;
+        }
+        LocalDateTime oldest = ticketRepository.findOldestCreatedAt();
+        if (oldest != null) {
+            backfill(oldest.toLocalDate(), LocalDate.now());
+        }
+    }
+
+    /**
+     * Rebuild recent days to correct any drift (e.g. rows changed outside the services)
+     */
+    @Scheduled(cron = "${ticket.rollup.reconcile-cron:0 45 2 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void reconcileRecentDays() {
+        LocalDate today = LocalDate.now();
+        backfill(today.minusDays(reconcileDays), today);
+    }
+
+    // Private helper methods
+
+    private int rebuildRange(LocalDate first, LocalDate last) {
+        LocalDateTime from = first.atStartOfDay();
+        LocalDateTime to = last.plusDays(1).atStartOfDay();
+        Map<String, TicketDailyRollup> rollups = new HashMap<>();
+        merge(rollups, ticketRepository.getCreatedRollup(from, to), TicketDailyRollup.Measure.CREATED);
+        merge(rollups, ticketRepository.getResolvedRollup(from, to), TicketDailyRollup.Measure.RESOLVED);
+        merge(rollups, ticketRepository.getEscalatedRollup(from, to), TicketDailyRollup.Measure.ESCALATED);
+        merge(rollups, ticketRepository.getSlaBreachedRollup(from, to), TicketDailyRollup.Measure.SLA_BREACHED);
+
+        rollupRepository.deleteByRollupDateBetween(first, last);
+        rollupRepository.flush();
+        rollupRepository.saveAll(rollups.values());
+        return rollups.size();
+    }
+
+    private void merge(Map<String, TicketDailyRollup> rollups, List<Object[]> rows, TicketDailyRollup.Measure measure) {
+        for (Object[] row : rows) {
+            LocalDate day = (LocalDate) row[0];
+            TicketStatus status = (TicketStatus) row[1];
+            TicketPriority priority = (TicketPriority) row[2];
+            TicketCategory category = (TicketCategory) row[3];
+            Long assigneeId = (Long) row[4];
+            TicketDailyRollup rollup = rollups.computeIfAbsent(
+                TicketDailyRollup.keyOf(day, status, priority, category, assigneeId),
+                key -> new TicketDailyRollup(day, status, priority, category, assigneeId));
+            long count = (Long) row[5];
+            switch (measure) {
+                case CREATED: rollup.setCreatedCount(rollup.getCreatedCount() + count); break;
+                case RESOLVED: rollup.setResolvedCount(rollup.getResolvedCount() + count); break;
+                case ESCALATED: rollup.setEscalatedCount(rollup.getEscalatedCount() + count); break;
+                case SLA_BREACHED: rollup.setSlaBreachedCount(rollup.getSlaBreachedCount() + count); break;
+            }
+        }
+    }
+
+    private void applyChange(Set<TicketDailyRollup.Contribution> previous, Set<TicketDailyRollup.Contribution> current) {
+        // One update per row, with the deltas of all its measures
+        Map<String, long[]> deltas = new HashMap<>();
+        Map<String, TicketDailyRollup.Contribution> rows = new HashMap<>();
+        addDeltas(deltas, rows, previous, current);
+        applyDeltas(deltas, rows);
+    }
+
+    /**
+     * Add the count changes between two contribution sets, per row key and measure (indexed by Measure ordinal)
+     */
+    static void addDeltas(Map<String, long[]> deltas, Map<String, TicketDailyRollup.Contribution> rows,
+                          Set<TicketDailyRollup.Contribution> previous, Set<TicketDailyRollup.Contribution> current) {
+        Set<TicketDailyRollup.Contribution> before = previous != null ? previous : Set.of();
+        for (TicketDailyRollup.Contribution contribution : current) {
+            if (!before.contains(contribution)) {
+                addDelta(deltas, rows, contribution, 1);
+            }
+        }
+        for (TicketDailyRollup.Contribution contribution : before) {
+            if (!current.contains(contribution)) {
+                addDelta(deltas, rows, contribution, -1);
+            }
+        }
+    }
+
+    private void applyDeltas(Map<String, long[]> deltas, Map<String, TicketDailyRollup.Contribution> rows) {
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((key, delta) -> {
+            if (delta[0] == 0 && delta[1] == 0 && delta[2] == 0 && delta[3] == 0) {
+                return;
+            }
+            if (rollupRepository.increment(key, delta[0], delta[1], delta[2], delta[3], now) == 0) {
+                createRow(rows.get(key).newRollup(), now);
+                rollupRepository.increment(key, delta[0], delta[1], delta[2], delta[3], now);
+            }
+        });
+    }
+
+    private void createRow(TicketDailyRollup rollup, LocalDateTime now) {
+        // Insert the empty row behind a savepoint on the transaction's connection: when a concurrent change
+        // created it first, only the insert is rolled back and the ticket change goes on to increment that row
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                jdbcTemplate.update(
+                    "INSERT INTO ticket_daily_rollups (rollup_key, rollup_date, status, priority, category, assignee_id, " +
+                    "created_count, resolved_count, escalated_count, sla_breached_count, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, 0, 0, 0, 0, ?)",
+                    rollup.getRollupKey(), rollup.getRollupDate(), name(rollup.getStatus()), name(rollup.getPriority()),
+                    name(rollup.getCategory()), rollup.getAssigneeId(), now);
+                connection.releaseSavepoint(savepoint);
+            } catch (DuplicateKeyException e) {
+                connection.rollback(savepoint);
+                logger.debug("Rollup row {} created by a concurrent change", rollup.getRollupKey());
+            }
+            return null;
+        });
+    }
+
+    private static String name(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+
+    private static void addDelta(Map<String, long[]> deltas, Map<String, TicketDailyRollup.Contribution> rows,
+                                 TicketDailyRollup.Contribution contribution, long delta) {
+        String key = contribution.getRollupKey();
+        rows.putIfAbsent(key, contribution);
+        deltas.computeIfAbsent(key, k -> new long[4])[contribution.getMeasure().ordinal()] += delta;
+    }
+
+    private long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    /**
+     * Inner class for the ticket totals of one day
+     */
+    public static class DailyTrend {
+        private final LocalDate date;
+        private final long created;
+        private final long resolved;
+        private final long escalated;
+        private final long slaBreached;
+
+        public DailyTrend(LocalDate date, long created, long resolved, long escalated, long slaBreached) {
+            this.date = date;
+            this.created = created;
+            this.resolved = resolved;
+            this.escalated = escalated;
+            this.slaBreached = slaBreached;
+        }
+
+        // Getters
+        public LocalDate getDate() { return date; }
+        public long getCreated() { return created; }
+        public long getResolved() { return resolved; }
+        public long getEscalated() { return escalated; }
+        public long getSlaBreached() { return slaBreached; }
+    }
+}
@@ -0,0 +1,413 @@
+package ma.gov.dgh.helpdesk.service;
+
+import ma.gov.dgh.helpdesk.entity.CommentType;
+import ma.gov.dgh.helpdesk.entity.Ticket;
+import ma.gov.dgh.helpdesk.entity.TicketCategory;
+import ma.gov.dgh.helpdesk.entity.TicketComment;
+import ma.gov.dgh.helpdesk.repository.TicketCommentRepository;
+import ma.gov.dgh.helpdesk.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over ticket title, description, resolution, category and comment text.
+ * Used by the ticket search instead of LIKE '%...%' scans; maintained incrementally by TicketService.
+ */
+@Service
+public class TicketSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketSearchIndex.class);
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    // Field weights used for ranking
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TEXT_WEIGHT = 1;
+
+    // Prefix matches rank below exact term matches
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 500;
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private final TicketRepository ticketRepository;
+    private final TicketCommentRepository ticketCommentRepository;
+
+    @Value("${ticket.search.rebuild-batch-size:500}")
+    private int rebuildBatchSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Live index data, replaced as a whole when a rebuild completes
+    private IndexData data = new IndexData();
+
+    // Incremental updates applied while a rebuild is running, replayed onto the rebuilt data (null otherwise)
+    private List<Consumer<IndexData>> pendingUpdates;
+
+    private volatile boolean ready = false;
+
+    @Autowired
+    public TicketSearchIndex(TicketRepository ticketRepository, TicketCommentRepository ticketCommentRepository) {
+        this.ticketRepository = ticketRepository;
+        this.ticketCommentRepository = ticketCommentRepository;
+    }
+
+    /**
+     * Build the index from the database once the application is ready
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the whole index from the database, reading tickets and comments in keyset batches.
+     * The new index is built off to the side while the current one keeps answering searches; updates
+     * committed meanwhile are replayed onto it before it is swapped in.
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+
+        lock.writeLock().lock();
+        try {
+            pendingUpdates = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            IndexData rebuilt = new IndexData();
+
+            long lastTicketId = 0L;
+            int ticketCount = 0;
+            List<Object[]> rows;
+            do {
+                rows = ticketRepository.findTicketTextForIndex(lastTicketId, PageRequest.of(0, rebuildBatchSize));
+                for (Object[] row : rows) {
+                    Long ticketId = (Long) row[0];
+                    rebuilt.putFieldTerms(ticketId,
+                        fieldTerms((String) row[1], (String) row[2], (String) row[3], (TicketCategory) row[4]));
+                    lastTicketId = ticketId;
+                }
+                ticketCount += rows.size();
+            } while (rows.size() == rebuildBatchSize);
+
+            long lastCommentId = 0L;
+            List<Object[]> comments;
+            do {
+                comments = ticketCommentRepository.findCommentTextForIndex(lastCommentId, PageRequest.of(0, rebuildBatchSize));
+                for (Object[] row : comments) {
+                    lastCommentId = (Long) row[0];
+                    rebuilt.putCommentTerms((Long) row[1], lastCommentId, tokenize((String) row[2]));
+                }
+            } while (comments.size() == rebuildBatchSize);
+
+            int replayed;
+            lock.writeLock().lock();
+            try {
+                replayed = pendingUpdates.size();
+                pendingUpdates.forEach(update -> update.accept(rebuilt));
+                data = rebuilt;
+            } finally {
+                pendingUpdates = null;
+                lock.writeLock().unlock();
+            }
+
+            ready = true;
+            logger.info("Ticket search index built: {} tickets, {} terms, {} updates replayed in {} ms",
+                ticketCount, termCount(), replayed, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                pendingUpdates = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Failed to build ticket search index, keeping the current index: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Index (or re-index) the searchable fields of a ticket once the current transaction commits
+     */
+    public void indexTicket(Ticket ticket) {
+        Long ticketId = ticket.getId();
+        if (ticketId == null) {
+            return;
+        }
+        Map<String, Integer> terms = fieldTerms(ticket.getTitle(), ticket.getDescription(), ticket.getResolution(),
+                                                ticket.getCategory());
+        afterCommit(() -> update(index -> index.putFieldTerms(ticketId, terms)));
+    }
+
+    /**
+     * Add a saved comment's text to its ticket's entry once the current transaction commits.
+     * Only public user comments are indexed: internal notes and system comments are skipped,
+     * so search results never reveal text the caller could not read.
+     */
+    public void indexComment(TicketComment comment) {
+        if (comment.getId() == null || comment.getTicket() == null || comment.getTicket().getId() == null ||
+            comment.getComment() == null || Boolean.TRUE.equals(comment.getIsInternal()) ||
+            (comment.getCommentType() != CommentType.COMMENT && comment.getCommentType() != CommentType.RESOLUTION)) {
+            return;
+        }
+        Long ticketId = comment.getTicket().getId();
+        Long commentId = comment.getId();
+        Map<String, Integer> terms = tokenize(comment.getComment());
+        afterCommit(() -> update(index -> index.putCommentTerms(ticketId, commentId, terms)));
+    }
+
+    /**
+     * Remove a ticket from the index once the current transaction commits
+     */
+    public void removeTicket(Long ticketId) {
+        afterCommit(() -> update(index -> index.removeTicket(ticketId)));
+    }
+
+    /**
+     * Search the index. Every query term must match, either exactly or as a prefix of an indexed term.
+     *
+     * @return all matching ticket IDs ordered by relevance (best first), or null when the index cannot answer
+     *         the query (not built yet, or no searchable terms) and the caller should fall back
+     */
+    public List<Long> search(String query) {
+        if (!ready || query == null) {
+            return null;
+        }
+        Set<String> queryTerms = tokenize(query).keySet();
+        if (queryTerms.isEmpty()) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = Math.max(data.fieldTerms.size(), 1);
+            Map<Long, Double> scores = null;
+
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> termScores = scoreTerm(queryTerm, documentCount);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Long, Double> merged = new HashMap<>();
+                    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                        Double termScore = termScores.get(entry.getKey());
+                        if (termScore != null) {
+                            merged.put(entry.getKey(), entry.getValue() + termScore);
+                        }
+                    }
+                    scores = merged;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .map(Map.Entry::getKey)
+                .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the index has been built and is answering searches
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Number of distinct indexed terms
+     */
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return data.postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Private helper methods
+
+    private void update(Consumer<IndexData> update) {
+        lock.writeLock().lock();
+        try {
+            update.accept(data);
+            if (pendingUpdates != null) {
+                pendingUpdates.add(update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreTerm(String queryTerm, int documentCount) {
+        Map<Long, Double> scores = new HashMap<>();
+
+        Map<Long, Integer> exact = data.postings.get(queryTerm);
+        if (exact != null) {
+            accumulate(scores, exact, documentCount, 1.0);
+        }
+
+        if (queryTerm.length() >= MIN_PREFIX_LENGTH) {
+            int expansions = 0;
+            for (Map.Entry<String, Map<Long, Integer>> entry :
+                    data.postings.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+                if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                accumulate(scores, entry.getValue(), documentCount, PREFIX_MATCH_FACTOR);
+            }
+        }
+        return scores;
+    }
+
+    private void accumulate(Map<Long, Double> scores, Map<Long, Integer> termPostings, int documentCount, double factor) {
+        double idf = Math.log(1.0 + (double) documentCount / termPostings.size());
+        for (Map.Entry<Long, Integer> posting : termPostings.entrySet()) {
+            scores.merge(posting.getKey(), posting.getValue() * idf * factor, Double::sum);
+        }
+    }
+
+    private static Map<String, Integer> fieldTerms(String title, String description, String resolution,
+                                                   TicketCategory category) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, title, TITLE_WEIGHT);
+        addTerms(terms, description, TEXT_WEIGHT);
+        addTerms(terms, resolution, TEXT_WEIGHT);
+        if (category != null) {
+            addTerms(terms, category.name() + " " + category.getDisplayName(), TEXT_WEIGHT);
+        }
+        return terms;
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        tokenize(text).forEach((term, count) -> terms.merge(term, count * weight, Integer::sum));
+    }
+
+    /**
+     * Split text into lower-case, accent-free terms with their frequencies
+     */
+    static Map<String, Integer> tokenize(String text) {
+        Map<String, Integer> terms = new HashMap<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+            .replaceAll("")
+            .toLowerCase(Locale.ROOT);
+        for (String token : TOKEN_SEPARATOR.split(normalized)) {
+            if (!token.isEmpty() && token.length() <= MAX_TOKEN_LENGTH) {
+                terms.merge(token, 1, Integer::sum);
+            }
+        }
+        return terms;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Postings and per-ticket terms. Every update is idempotent (fields are replaced, comments are keyed
+     * by comment ID), so replaying updates onto a rebuilt index never counts text twice.
+     */
+    private static class IndexData {
+
+        // term -> (ticket ID -> weighted term frequency)
+        private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+        // ticket ID -> terms contributed by the ticket fields
+        private final Map<Long, Map<String, Integer>> fieldTerms = new HashMap<>();
+
+        // ticket ID -> (comment ID -> terms contributed by the comment)
+        private final Map<Long, Map<Long, Map<String, Integer>>> commentTerms = new HashMap<>();
+
+        void putFieldTerms(Long ticketId, Map<String, Integer> terms) {
+            removePostings(ticketId, fieldTerms.put(ticketId, terms));
+            addPostings(ticketId, terms);
+        }
+
+        void putCommentTerms(Long ticketId, Long commentId, Map<String, Integer> terms) {
+            if (terms.isEmpty()) {
+                return;
+            }
+            Map<Long, Map<String, Integer>> ticketComments = commentTerms.computeIfAbsent(ticketId, id -> new HashMap<>());
+            if (ticketComments.putIfAbsent(commentId, terms) == null) {
+                addPostings(ticketId, terms);
+            }
+        }
+
+        void removeTicket(Long ticketId) {
+            removePostings(ticketId, fieldTerms.remove(ticketId));
+            Map<Long, Map<String, Integer>> ticketComments = commentTerms.remove(ticketId);
+            if (ticketComments != null) {
+                ticketComments.values().forEach(terms -> removePostings(ticketId, terms));
+            }
+        }
+
+        private void addPostings(Long ticketId, Map<String, Integer> terms) {
+            terms.forEach((term, count) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).merge(ticketId, count, Integer::sum));
+        }
+
+        private void removePostings(Long ticketId, Map<String, Integer> terms) {
+            if (terms == null) {
+                return;
+            }
+            terms.forEach((term, count) -> {
+                Map<Long, Integer> termPostings = postings.get(term);
+                if (termPostings == null) {
+                    return;
+                }
+                Integer remaining = termPostings.merge(ticketId, -count, Integer::sum);
+                if (remaining != null && remaining <= 0) {
+                    termPostings.remove(ticketId);
+                }
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            });
+        }
+    }
+}
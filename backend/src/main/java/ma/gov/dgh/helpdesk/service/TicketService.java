@@ -3,15 +3,39 @@ package ma.gov.dgh.helpdesk.service;
 import ma.gov.dgh.helpdesk.entity.*;
 import ma.gov.dgh.helpdesk.repository.TicketRepository;
 import ma.gov.dgh.helpdesk.repository.TicketCommentRepository;
+import ma.gov.dgh.helpdesk.repository.TicketTombstoneRepository;
+import ma.gov.dgh.helpdesk.utils.SecurityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service class for Ticket entity operations
@@ -20,13 +44,71 @@ import java.util.Optional;
 @Transactional
 public class TicketService {
     
+    private static final Logger logger = LoggerFactory.getLogger(TicketService.class);
+    
+    private static final String RELEVANCE_SORT = "relevance";
+    private static final LocalDateTime SYNC_EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    /**
+     * Change applied by a bulk operation
+     */
+    public enum BulkAction {
+        ASSIGN,
+        STATUS,
+        CLOSE
+    }
+    
+    /**
+     * Outcome of a bulk operation for one ticket
+     */
+    public enum BulkOutcome {
+        UPDATED,
+        UNCHANGED,
+        NOT_FOUND,
+        FORBIDDEN,
+        CONFLICT
+    }
+    
     private final TicketRepository ticketRepository;
     private final TicketCommentRepository ticketCommentRepository;
+    private final TicketTombstoneRepository ticketTombstoneRepository;
+    private final TicketSearchIndex ticketSearchIndex;
+    private final StatisticsCounterService statisticsCounterService;
+    private final TicketEventPublisher ticketEventPublisher;
+    private final SlaMonitor slaMonitor;
+    private final TicketRollupService ticketRollupService;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${ticket.changes.commit-lag:2000}")
+    private long changesCommitLagMs;
+    
+    @Value("${ticket.changes.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+    
+    @Value("${ticket.search.id-batch-size:1000}")
+    private int searchIdBatchSize;
+    
+    @Value("${ticket.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+    
+    @Value("${ticket.bulk.max-tickets:5000}")
+    private int bulkMaxTickets;
     
     @Autowired
-    public TicketService(TicketRepository ticketRepository, TicketCommentRepository ticketCommentRepository) {
+    public TicketService(TicketRepository ticketRepository, TicketCommentRepository ticketCommentRepository,
+                         TicketTombstoneRepository ticketTombstoneRepository,
+                         TicketSearchIndex ticketSearchIndex, StatisticsCounterService statisticsCounterService,
+                         TicketEventPublisher ticketEventPublisher, SlaMonitor slaMonitor,
+                         TicketRollupService ticketRollupService, PlatformTransactionManager transactionManager) {
         this.ticketRepository = ticketRepository;
         this.ticketCommentRepository = ticketCommentRepository;
+        this.ticketTombstoneRepository = ticketTombstoneRepository;
+        this.ticketSearchIndex = ticketSearchIndex;
+        this.statisticsCounterService = statisticsCounterService;
+        this.ticketEventPublisher = ticketEventPublisher;
+        this.slaMonitor = slaMonitor;
+        this.ticketRollupService = ticketRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
     
     /**
@@ -47,50 +129,85 @@ public class TicketService {
         
         // Set due date based on priority if not set
         if (ticket.getDueDate() == null) {
-            ticket.setDueDate(calculateDueDate(ticket.getPriority()));
+            ticket.setDueDate(calculateDueDate(ticket.getPriority(), LocalDateTime.now()));
         }
         
         Ticket savedTicket = ticketRepository.save(ticket);
+        statisticsCounterService.recordTicketChange(savedTicket);
+        ticketRollupService.recordTicketChange(savedTicket);
         
         // Add initial system comment
-        TicketComment initialComment = new TicketComment(savedTicket, ticket.getCreatedBy(), 
-            "Ticket created", true);
-        initialComment.setCommentType(CommentType.SYSTEM);
-        ticketCommentRepository.save(initialComment);
+        ticketCommentRepository.save(systemComment(savedTicket, ticket.getCreatedBy(), "Ticket created"));
+        
+        ticketSearchIndex.indexTicket(savedTicket);
+        slaMonitor.track(savedTicket);
+        ticketEventPublisher.publish(TicketEventPublisher.TicketEventType.CREATED, savedTicket);
         
         return savedTicket;
     }
     
     /**
-     * Update an existing ticket
+     * Update an existing ticket from a detached copy holding its ID and new values.
+     * Null title, description, priority, category and status are left unchanged; the assignee is always applied.
+     * A non-null version must match the stored ticket, and a concurrent update fails at commit
+     * (ObjectOptimisticLockingFailureException). Only the changed columns are written.
      */
-    public Ticket updateTicket(Ticket ticket) {
-        if (ticket.getId() == null) {
+    public Ticket updateTicket(Ticket changes) {
+        if (changes.getId() == null) {
             throw new IllegalArgumentException("Ticket ID cannot be null for update operation");
         }
         
-        Optional<Ticket> existingTicket = ticketRepository.findById(ticket.getId());
+        Optional<Ticket> existingTicket = ticketRepository.findById(changes.getId());
         if (existingTicket.isEmpty()) {
-            throw new IllegalArgumentException("Ticket not found with ID: " + ticket.getId());
+            throw new IllegalArgumentException("Ticket not found with ID: " + changes.getId());
         }
         
-        Ticket oldTicket = existingTicket.get();
+        Ticket ticket = existingTicket.get();
+        if (changes.getVersion() != null && !changes.getVersion().equals(ticket.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Ticket.class, ticket.getId());
+        }
         
-        // Track changes for audit trail
-        if (!oldTicket.getStatus().equals(ticket.getStatus())) {
-            addStatusChangeComment(ticket, oldTicket.getStatus(), ticket.getStatus());
+        // Apply the changes to the stored ticket, tracking them for the audit trail;
+        // the comments are written together as one JDBC batch
+        List<TicketComment> auditComments = new ArrayList<>();
+        User previousAssignee = ticket.getAssignedTo();
+        Long previousAssigneeId = previousAssignee != null ? previousAssignee.getId() : null;
+        Long assigneeId = changes.getAssignedTo() != null ? changes.getAssignedTo().getId() : null;
+        if (!Objects.equals(previousAssigneeId, assigneeId)) {
+            ticket.setAssignedTo(changes.getAssignedTo());
+            auditComments.add(assignmentChangeComment(ticket, previousAssignee, changes.getAssignedTo()));
         }
         
-        if (!oldTicket.getPriority().equals(ticket.getPriority())) {
-            addPriorityChangeComment(ticket, oldTicket.getPriority(), ticket.getPriority());
+        if (changes.getStatus() != null && changes.getStatus() != ticket.getStatus()) {
+            auditComments.add(statusChangeComment(ticket, ticket.getStatus(), changes.getStatus()));
+            ticket.setStatus(changes.getStatus());
         }
         
-        if ((oldTicket.getAssignedTo() == null && ticket.getAssignedTo() != null) ||
-            (oldTicket.getAssignedTo() != null && !oldTicket.getAssignedTo().equals(ticket.getAssignedTo()))) {
-            addAssignmentChangeComment(ticket, oldTicket.getAssignedTo(), ticket.getAssignedTo());
+        if (changes.getPriority() != null && changes.getPriority() != ticket.getPriority()) {
+            auditComments.add(priorityChangeComment(ticket, ticket.getPriority(), changes.getPriority()));
+            ticket.setPriority(changes.getPriority());
+            ticket.setDueDate(calculateDueDate(ticket.getPriority(), ticket.getCreatedAt()));
         }
         
-        return ticketRepository.save(ticket);
+        if (changes.getTitle() != null) {
+            ticket.setTitle(changes.getTitle());
+        }
+        if (changes.getDescription() != null) {
+            ticket.setDescription(changes.getDescription());
+        }
+        if (changes.getCategory() != null) {
+            ticket.setCategory(changes.getCategory());
+        }
+        
+        Ticket savedTicket = ticketRepository.save(ticket);
+        ticketCommentRepository.saveAll(auditComments);
+        statisticsCounterService.recordTicketChange(savedTicket);
+        ticketRollupService.recordTicketChange(savedTicket);
+        ticketSearchIndex.indexTicket(savedTicket);
+        slaMonitor.track(savedTicket);
+        ticketEventPublisher.publish(TicketEventPublisher.TicketEventType.UPDATED, savedTicket, previousAssignee);
+        
+        return savedTicket;
     }
     
     /**
@@ -118,94 +235,170 @@ public class TicketService {
     }
     
     /**
-     * Get tickets by status
+     * Get a slice of tickets by status
      */
     @Transactional(readOnly = true)
-    public List<Ticket> findByStatus(TicketStatus status) {
-        return ticketRepository.findByStatus(status);
+    public TicketSlice findByStatus(TicketStatus status, String cursor, int size) {
+        return findSlice(status, null, null, null, null, false, false, false, cursor, size);
     }
     
     /**
-     * Get tickets by priority
+     * Get a slice of tickets by priority
      */
     @Transactional(readOnly = true)
-    public List<Ticket> findByPriority(TicketPriority priority) {
-        return ticketRepository.findByPriority(priority);
+    public TicketSlice findByPriority(TicketPriority priority, String cursor, int size) {
+        return findSlice(null, priority, null, null, null, false, false, false, cursor, size);
     }
     
     /**
-     * Get tickets by category
+     * Get a slice of tickets by category
      */
     @Transactional(readOnly = true)
-    public List<Ticket> findByCategory(TicketCategory category) {
-        return ticketRepository.findByCategory(category);
+    public TicketSlice findByCategory(TicketCategory category, String cursor, int size) {
+        return findSlice(null, null, category, null, null, false, false, false, cursor, size);
     }
     
     /**
-     * Get tickets created by user
+     * Get a slice of tickets created by user
      */
     @Transactional(readOnly = true)
-    public List<Ticket> findByCreatedBy(User createdBy) {
-        return ticketRepository.findByCreatedBy(createdBy);
+    public TicketSlice findByCreatedBy(User createdBy, String cursor, int size) {
+        return findSlice(null, null, null, createdBy, null, false, false, false, cursor, size);
     }
     
     /**
-     * Get tickets assigned to user
+     * Get a slice of tickets assigned to user
      */
     @Transactional(readOnly = true)
-    public List<Ticket> findByAssignedTo(User assignedTo) {
-        return ticketRepository.findByAssignedTo(assignedTo);
+    public TicketSlice findByAssignedTo(User assignedTo, String cursor, int size) {
+        return findSlice(null, null, null, null, assignedTo, false, false, false, cursor, size);
     }
     
     /**
-     * Get unassigned tickets
+     * Get a slice of unassigned tickets
      */
     @Transactional(readOnly = true)
-    public List<Ticket> findUnassignedTickets() {
-        return ticketRepository.findByAssignedToIsNull();
+    public TicketSlice findUnassignedTickets(String cursor, int size) {
+        return findSlice(null, null, null, null, null, true, false, false, cursor, size);
     }
     
     /**
-     * Get open tickets
+     * Get a slice of open tickets
      */
     @Transactional(readOnly = true)
-    public List<Ticket> findOpenTickets() {
-        return ticketRepository.findOpenTickets();
+    public TicketSlice findOpenTickets(String cursor, int size) {
+        return findSlice(null, null, null, null, null, false, true, false, cursor, size);
     }
     
     /**
-     * Get overdue tickets
+     * Get a slice of overdue tickets, most overdue first; the cursor is "dueDate,id".
+     * Served from the SLA monitor once it is loaded, from the database before that.
      */
     @Transactional(readOnly = true)
-    public List<Ticket> findOverdueTickets() {
-        return ticketRepository.findOverdueTickets(LocalDateTime.now());
+    public TicketSlice findOverdueTickets(String cursor, int size) {
+        CursorPosition position = parseCursor(cursor);
+        LocalDateTime afterDueDate = position != null ? position.timestamp : null;
+        Long afterId = position != null ? position.id : null;
+        
+        List<Ticket> tickets;
+        if (slaMonitor.isReady()) {
+            List<SlaMonitor.OverdueTicket> overdue = slaMonitor.getOverdue(afterDueDate, afterId, size + 1);
+            Map<Long, Ticket> byId = new HashMap<>();
+            ticketRepository.findAllById(overdue.stream().map(SlaMonitor.OverdueTicket::getTicketId).toList())
+                .forEach(ticket -> byId.put(ticket.getId(), ticket));
+            tickets = overdue.stream()
+                .map(entry -> byId.get(entry.getTicketId()))
+                .filter(ticket -> ticket != null)
+                .toList();
+        } else {
+            tickets = ticketRepository.findOverdueTicketsAfter(LocalDateTime.now(), afterDueDate, afterId,
+                PageRequest.of(0, size + 1));
+        }
+        
+        boolean hasNext = tickets.size() > size;
+        List<Ticket> content = hasNext ? tickets.subList(0, size) : tickets;
+        String nextCursor = null;
+        if (hasNext) {
+            Ticket last = content.get(content.size() - 1);
+            nextCursor = last.getDueDate() + "," + last.getId();
+        }
+        return new TicketSlice(content, nextCursor, hasNext);
     }
     
     /**
-     * Get escalated tickets
+     * Get a slice of escalated tickets
      */
     @Transactional(readOnly = true)
-    public List<Ticket> findEscalatedTickets() {
-        return ticketRepository.findByIsEscalatedTrue();
+    public TicketSlice findEscalatedTickets(String cursor, int size) {
+        return findSlice(null, null, null, null, null, false, false, true, cursor, size);
     }
     
     /**
-     * Get critical open tickets
+     * Get a slice of critical open tickets
      */
     @Transactional(readOnly = true)
-    public List<Ticket> findCriticalOpenTickets() {
-        return ticketRepository.findCriticalOpenTickets();
+    public TicketSlice findCriticalOpenTickets(String cursor, int size) {
+        return findSlice(null, TicketPriority.CRITICAL, null, null, null, false, true, false, cursor, size);
     }
     
     /**
-     * Get tickets with filters and pagination
+     * Get tickets with filters and pagination.
+     * Free-text search is answered by the in-memory search index when it is available;
+     * sorting by "relevance" orders the page by search rank. Other orders are paged by the database
+     * with the matches as one ID list, so larger match sets fall back to the database search.
      */
     @Transactional(readOnly = true)
     public Page<Ticket> findTicketsWithFilters(String search, TicketStatus status, TicketPriority priority,
                                               TicketCategory category, User createdBy, User assignedTo,
                                               Long equipmentId, Pageable pageable) {
-        return ticketRepository.findTicketsWithFilters(search, status, priority, category, 
-                                                      createdBy, assignedTo, equipmentId, pageable);
+        List<Long> matchingIds = ticketSearchIndex.search(search);
+        boolean byRelevance = pageable.getSort().getOrderFor(RELEVANCE_SORT) != null;
+        
+        if (matchingIds == null || (!byRelevance && matchingIds.size() > searchIdBatchSize)) {
+            // Index not ready, nothing indexable in the query or too many matches for one ID list:
+            // fall back to the database search
+            if (byRelevance) {
+                pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("createdAt").descending());
+            }
+            return ticketRepository.findTicketsWithFilters(search, status, priority, category, 
+                                                          createdBy, assignedTo, equipmentId, pageable);
+        }
+        
+        if (matchingIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        
+        if (!byRelevance) {
+            return ticketRepository.findTicketsWithFiltersByIds(matchingIds, status, priority, category,
+                                                               createdBy, assignedTo, equipmentId, pageable);
+        }
+        
+        // Keep the index ranking, restricted to the tickets that pass the filters (checked in ID batches)
+        List<Long> rankedIds = matchingIds;
+        if (status != null || priority != null || category != null || createdBy != null || assignedTo != null ||
+            equipmentId != null) {
+            Set<Long> filteredIds = new HashSet<>();
+            for (int from = 0; from < matchingIds.size(); from += searchIdBatchSize) {
+                filteredIds.addAll(ticketRepository.findFilteredTicketIds(
+                    matchingIds.subList(from, Math.min(from + searchIdBatchSize, matchingIds.size())),
+                    status, priority, category, createdBy, assignedTo, equipmentId));
+            }
+            rankedIds = matchingIds.stream().filter(filteredIds::contains).toList();
+        }
+        
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), rankedIds.size());
+        List<Long> pageIds = rankedIds.subList(from, to);
+        
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < pageIds.size(); i++) {
+            rank.put(pageIds.get(i), i);
+        }
+        List<Ticket> content = ticketRepository.findAllById(pageIds).stream()
+            .sorted(Comparator.comparing(ticket -> rank.get(ticket.getId())))
+            .toList();
+        
+        return new PageImpl<>(content, pageable, rankedIds.size());
     }
     
     /**
@@ -226,9 +419,12 @@ public class TicketService {
         }
         
         Ticket savedTicket = ticketRepository.save(ticket);
+        statisticsCounterService.recordTicketChange(savedTicket);
+        ticketRollupService.recordTicketChange(savedTicket);
         
         // Add assignment change comment
-        addAssignmentChangeComment(savedTicket, previousAssignee, assignedTo);
+        ticketCommentRepository.save(assignmentChangeComment(savedTicket, previousAssignee, assignedTo));
+        ticketEventPublisher.publish(TicketEventPublisher.TicketEventType.ASSIGNED, savedTicket, previousAssignee);
         
         return savedTicket;
     }
@@ -251,16 +447,21 @@ public class TicketService {
         }
         
         Ticket savedTicket = ticketRepository.save(ticket);
+        statisticsCounterService.recordTicketChange(savedTicket);
+        ticketRollupService.recordTicketChange(savedTicket);
         
-        // Add status change comment
-        addStatusChangeComment(savedTicket, oldStatus, newStatus);
-        
-        // Add user comment if provided
+        // Add status change comment and the user comment if provided, written as one JDBC batch
+        List<TicketComment> comments = new ArrayList<>();
+        comments.add(statusChangeComment(savedTicket, oldStatus, newStatus));
         if (comment != null && !comment.trim().isEmpty()) {
             TicketComment userComment = new TicketComment(savedTicket, ticket.getAssignedTo(), comment);
             userComment.setCommentType(CommentType.COMMENT);
-            ticketCommentRepository.save(userComment);
+            comments.add(userComment);
         }
+        ticketCommentRepository.saveAll(comments);
+        comments.forEach(ticketSearchIndex::indexComment);
+        slaMonitor.track(savedTicket);
+        ticketEventPublisher.publish(TicketEventPublisher.TicketEventType.STATUS_CHANGED, savedTicket);
         
         return savedTicket;
     }
@@ -275,23 +476,30 @@ public class TicketService {
         }
         
         Ticket ticket = ticketOpt.get();
+        if (!Boolean.TRUE.equals(ticket.getIsEscalated())) {
+            ticket.setEscalatedAt(LocalDateTime.now());
+        }
         ticket.setIsEscalated(true);
         ticket.setEscalationReason(reason);
         
         // Increase priority if not already critical
+        List<TicketComment> auditComments = new ArrayList<>();
         if (ticket.getPriority() != TicketPriority.CRITICAL) {
             TicketPriority oldPriority = ticket.getPriority();
             ticket.setPriority(TicketPriority.HIGH);
-            addPriorityChangeComment(ticket, oldPriority, TicketPriority.HIGH);
+            auditComments.add(priorityChangeComment(ticket, oldPriority, TicketPriority.HIGH));
+            ticket.setDueDate(calculateDueDate(TicketPriority.HIGH, ticket.getCreatedAt()));
         }
         
         Ticket savedTicket = ticketRepository.save(ticket);
+        statisticsCounterService.recordTicketChange(savedTicket);
+        ticketRollupService.recordTicketChange(savedTicket);
         
-        // Add escalation comment
-        TicketComment escalationComment = new TicketComment(savedTicket, ticket.getCreatedBy(), 
-            "Ticket escalated. Reason: " + reason, true);
-        escalationComment.setCommentType(CommentType.SYSTEM);
-        ticketCommentRepository.save(escalationComment);
+        // Add escalation comment, written in one JDBC batch with the priority change
+        auditComments.add(systemComment(savedTicket, ticket.getCreatedBy(), "Ticket escalated. Reason: " + reason));
+        ticketCommentRepository.saveAll(auditComments);
+        slaMonitor.track(savedTicket);
+        ticketEventPublisher.publish(TicketEventPublisher.TicketEventType.ESCALATED, savedTicket);
         
         return savedTicket;
     }
@@ -307,7 +515,11 @@ public class TicketService {
         
         Ticket ticket = ticketOpt.get();
         TicketComment ticketComment = new TicketComment(ticket, user, comment, isInternal);
-        return ticketCommentRepository.save(ticketComment);
+        TicketComment savedComment = ticketCommentRepository.save(ticketComment);
+        ticketSearchIndex.indexComment(savedComment);
+        ticketEventPublisher.publishComment(ticket, savedComment);
+        
+        return savedComment;
     }
     
     /**
@@ -322,10 +534,190 @@ public class TicketService {
      * Delete ticket
      */
     public void deleteTicket(Long ticketId) {
-        if (!ticketRepository.existsById(ticketId)) {
+        Optional<Ticket> ticketOpt = ticketRepository.findById(ticketId);
+        if (ticketOpt.isEmpty()) {
             throw new IllegalArgumentException("Ticket not found with ID: " + ticketId);
         }
-        ticketRepository.deleteById(ticketId);
+        statisticsCounterService.recordTicketRemoval(ticketOpt.get());
+        ticketRollupService.recordTicketRemoval(ticketOpt.get());
+        ticketRepository.delete(ticketOpt.get());
+        User assignedTo = ticketOpt.get().getAssignedTo();
+        ticketTombstoneRepository.save(new TicketTombstone(ticketId, ticketOpt.get().getCreatedBy().getId(),
+            assignedTo != null ? assignedTo.getId() : null, LocalDateTime.now()));
+        ticketSearchIndex.removeTicket(ticketId);
+        slaMonitor.untrack(ticketId);
+        ticketEventPublisher.publish(TicketEventPublisher.TicketEventType.DELETED, ticketOpt.get());
+    }
+    
+    /**
+     * Find the IDs of the tickets a filtered bulk operation applies to, among the tickets the actor can access
+     * (non-admins: tickets they created or are assigned to). At least one criterion is required.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findBulkTicketIds(TicketStatus status, TicketPriority priority, TicketCategory category,
+                                        User assignedTo, boolean unassigned, User actor) {
+        if (status == null && priority == null && category == null && assignedTo == null && !unassigned) {
+            throw new IllegalArgumentException("Bulk filter requires at least one criterion");
+        }
+        User accessibleTo = actor.getRole() == UserRole.ADMIN ? null : actor;
+        List<Long> ids = new ArrayList<>();
+        long lastId = 0L;
+        List<Long> batch;
+        do {
+            batch = ticketRepository.findIdsWithFilters(status, priority, category, assignedTo, unassigned,
+                accessibleTo, lastId, PageRequest.of(0, bulkChunkSize));
+            ids.addAll(batch);
+            if (ids.size() > bulkMaxTickets) {
+                throw new IllegalArgumentException("Bulk operation matches more than " + bulkMaxTickets + " tickets");
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1);
+            }
+        } while (batch.size() == bulkChunkSize);
+        return ids;
+    }
+    
+    /**
+     * Assign, change the status of or close many tickets.
+     * Tickets are processed in chunks, each in its own transaction: one query loads the chunk, one set-based
+     * UPDATE per loaded version changes it and the audit comments are inserted as one JDBC batch. Counters, rollups,
+     * the SLA monitor, the search index and the change stream are updated as for single ticket changes.
+     * Tickets the actor cannot access (SecurityUtils.canAccessTicket) are left untouched and reported as forbidden;
+     * tickets changed by someone else after the chunk was loaded are left untouched and reported as conflicts.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult bulkUpdate(BulkAction action, Collection<Long> ticketIds, User assignedTo,
+                                 TicketStatus status, String comment, User actor) {
+        if (action == null) {
+            throw new IllegalArgumentException("Bulk action is required");
+        }
+        if (action == BulkAction.ASSIGN && assignedTo == null) {
+            throw new IllegalArgumentException("Bulk assignment requires an assignee");
+        }
+        if (action == BulkAction.STATUS && status == null) {
+            throw new IllegalArgumentException("Bulk status change requires a status");
+        }
+        if (ticketIds == null || ticketIds.isEmpty()) {
+            throw new IllegalArgumentException("No tickets selected for bulk operation");
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(ticketIds));
+        if (ids.size() > bulkMaxTickets) {
+            throw new IllegalArgumentException("Bulk operation is limited to " + bulkMaxTickets + " tickets");
+        }
+        TicketStatus targetStatus = action == BulkAction.CLOSE ? TicketStatus.CLOSED : status;
+        
+        long start = System.currentTimeMillis();
+        List<BulkTicketResult> results = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += bulkChunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + bulkChunkSize, ids.size()));
+            results.addAll(transactionTemplate.execute(
+                tx -> applyBulkChunk(action, chunk, assignedTo, targetStatus, comment, actor)));
+        }
+        BulkResult result = new BulkResult(action, results);
+        logger.info("Bulk {} of {} tickets by {}: {} updated, {} unchanged, {} not found, {} forbidden, {} conflicts in {} ms",
+            action, ids.size(), actor.getLdapUsername(), result.getUpdated(), result.getUnchanged(),
+            result.getNotFound(), result.getForbidden(), result.getConflicts(), System.currentTimeMillis() - start);
+        return result;
+    }
+    
+    /**
+     * Get tickets changed and deleted since a watermark, oldest change first.
+     * The cursor is the nextCursor of the previous call ("timestamp,id"); without one, changes
+     * since the given time (or all tickets when neither is given) are returned. Changes of the last
+     * few seconds are held back so that slower transactions committing with an earlier
+     * timestamp are not skipped. Non-admins only get the tickets they created or are assigned to.
+     */
+    @Transactional(readOnly = true)
+    public TicketChanges getChangesSince(LocalDateTime since, String cursor, int size, User actor) {
+        User accessibleTo = actor.getRole() == UserRole.ADMIN ? null : actor;
+        LocalDateTime afterTimestamp = since != null ? since : SYNC_EPOCH;
+        long afterId = 0;
+        CursorPosition position = parseCursor(cursor);
+        if (position != null) {
+            afterTimestamp = position.timestamp;
+            afterId = position.id;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        // Deletions older than the tombstone retention are gone: the client has to start over
+        if (!afterTimestamp.equals(SYNC_EPOCH) && afterTimestamp.isBefore(now.minusDays(tombstoneRetentionDays))) {
+            return new TicketChanges(List.of(), List.of(), null, false, true);
+        }
+        LocalDateTime until = now.minusNanos(changesCommitLagMs * 1_000_000);
+        
+        // Fetch one extra row from each side to know whether there is more
+        List<Ticket> changed = ticketRepository.findChangedAfter(afterTimestamp, afterId, until, accessibleTo,
+            PageRequest.of(0, size + 1));
+        List<TicketTombstone> deleted = ticketTombstoneRepository.findDeletedAfter(afterTimestamp, afterId, until,
+            accessibleTo != null ? accessibleTo.getId() : null, PageRequest.of(0, size + 1));
+        
+        // Merge both (timestamp, id) ordered lists, keeping the first size entries
+        List<Ticket> changedPage = new ArrayList<>();
+        List<Long> deletedPage = new ArrayList<>();
+        String nextCursor = afterTimestamp + "," + afterId;
+        int c = 0;
+        int d = 0;
+        while (changedPage.size() + deletedPage.size() < size && (c < changed.size() || d < deleted.size())) {
+            boolean takeChanged = d >= deleted.size() || (c < changed.size() &&
+                comparePosition(changed.get(c).getUpdatedAt(), changed.get(c).getId(),
+                                deleted.get(d).getDeletedAt(), deleted.get(d).getTicketId()) < 0);
+            if (takeChanged) {
+                Ticket ticket = changed.get(c++);
+                changedPage.add(ticket);
+                nextCursor = ticket.getUpdatedAt() + "," + ticket.getId();
+            } else {
+                TicketTombstone tombstone = deleted.get(d++);
+                deletedPage.add(tombstone.getTicketId());
+                nextCursor = tombstone.getDeletedAt() + "," + tombstone.getTicketId();
+            }
+        }
+        boolean hasMore = c < changed.size() || d < deleted.size();
+        
+        return new TicketChanges(changedPage, deletedPage, nextCursor, hasMore, false);
+    }
+    
+    /**
+     * Handle an SLA breach reported by the SLA monitor by recording it and escalating the ticket.
+     * Returns false, after resynchronizing the monitor, when the ticket is gone, closed or no longer
+     * past due; also false when it is already escalated, so a breach seen again after a restart
+     * is not handled twice.
+     */
+    public boolean handleSlaBreach(Long ticketId) {
+        Optional<Ticket> ticketOpt = ticketRepository.findById(ticketId);
+        if (ticketOpt.isEmpty()) {
+            slaMonitor.untrack(ticketId);
+            return false;
+        }
+        
+        Ticket ticket = ticketOpt.get();
+        if (ticket.getDueDate() == null || ticket.getDueDate().isAfter(LocalDateTime.now()) ||
+            ticket.getStatus() == TicketStatus.RESOLVED || ticket.getStatus() == TicketStatus.CLOSED ||
+            ticket.getStatus() == TicketStatus.CANCELLED) {
+            slaMonitor.track(ticket);
+            return false;
+        }
+        if (ticket.getSlaBreachedAt() == null) {
+            ticket.setSlaBreachedAt(LocalDateTime.now());
+        }
+        if (Boolean.TRUE.equals(ticket.getIsEscalated())) {
+            ticketRollupService.recordTicketChange(ticket);
+            return false;
+        }
+        
+        Ticket escalatedTicket = escalateTicket(ticketId, "SLA breached, ticket was due " + ticket.getDueDate());
+        ticketEventPublisher.publish(TicketEventPublisher.TicketEventType.SLA_BREACHED, escalatedTicket);
+        return true;
+    }
+    
+    /**
+     * Remove tombstones past their retention
+     */
+    @Scheduled(cron = "${ticket.changes.tombstone-purge-cron:0 15 3 * * *}")
+    public void purgeExpiredTombstones() {
+        int purged = ticketTombstoneRepository.deleteByDeletedAtBefore(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+        if (purged > 0) {
+            logger.info("Purged {} ticket tombstones older than {} days", purged, tombstoneRetentionDays);
+        }
     }
     
     /**
@@ -333,16 +725,7 @@ public class TicketService {
      */
     @Transactional(readOnly = true)
     public TicketStatistics getTicketStatistics() {
-        long totalTickets = ticketRepository.count();
-        long openTickets = ticketRepository.countByStatus(TicketStatus.OPEN);
-        long inProgressTickets = ticketRepository.countByStatus(TicketStatus.IN_PROGRESS);
-        long resolvedTickets = ticketRepository.countByStatus(TicketStatus.RESOLVED);
-        long closedTickets = ticketRepository.countByStatus(TicketStatus.CLOSED);
-        long unassignedTickets = ticketRepository.countByAssignedToIsNull();
-        long escalatedTickets = ticketRepository.countByIsEscalatedTrue();
-        
-        return new TicketStatistics(totalTickets, openTickets, inProgressTickets, 
-                                   resolvedTickets, closedTickets, unassignedTickets, escalatedTickets);
+        return StatisticsCounterService.toTicketStatistics(statisticsCounterService.getCounters());
     }
     
     /**
@@ -365,42 +748,269 @@ public class TicketService {
         return ticketRepository.findTicketsResolvedToday(startOfDay, endOfDay);
     }
     
+    /**
+     * Count unassigned tickets
+     */
+    @Transactional(readOnly = true)
+    public long countUnassignedTickets() {
+        return ticketRepository.countByAssignedToIsNull();
+    }
+    
+    /**
+     * Count tickets assigned to user by status
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> countByStatusForAssignee(User assignedTo) {
+        return toCountMap(ticketRepository.countByStatusForAssignee(assignedTo));
+    }
+    
+    /**
+     * Count tickets assigned to user by priority
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> countByPriorityForAssignee(User assignedTo) {
+        return toCountMap(ticketRepository.countByPriorityForAssignee(assignedTo));
+    }
+    
+    /**
+     * Count tickets assigned to user by category
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> countByCategoryForAssignee(User assignedTo) {
+        return toCountMap(ticketRepository.countByCategoryForAssignee(assignedTo));
+    }
+    
+    /**
+     * Sum actual and estimated hours of tickets assigned to user
+     */
+    @Transactional(readOnly = true)
+    public HoursSummary sumHoursForAssignee(User assignedTo) {
+        Object[] row = ticketRepository.sumHoursForAssignee(assignedTo).get(0);
+        return new HoursSummary(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+    }
+    
+    /**
+     * Average resolution time in hours of tickets assigned to user
+     */
+    @Transactional(readOnly = true)
+    public double getAverageResolutionHoursForAssignee(User assignedTo) {
+        Double seconds = ticketRepository.getAverageResolutionSecondsForAssignee(assignedTo);
+        return seconds != null ? seconds / 3600.0 : 0.0;
+    }
+    
+    /**
+     * Get the highest priority tickets assigned to user, oldest first within a priority
+     */
+    @Transactional(readOnly = true)
+    public List<Ticket> findPriorityQueueForAssignee(User assignedTo, int limit) {
+        return ticketRepository.findPriorityQueueForAssignee(assignedTo, PageRequest.of(0, limit));
+    }
+    
+    /**
+     * Get the most recently updated tickets assigned to user
+     */
+    @Transactional(readOnly = true)
+    public List<Ticket> findRecentlyUpdatedForAssignee(User assignedTo, int limit) {
+        return ticketRepository.findByAssignedToOrderByUpdatedAtDesc(assignedTo, PageRequest.of(0, limit));
+    }
+    
     // Private helper methods
     
-    private LocalDateTime calculateDueDate(TicketPriority priority) {
-        LocalDateTime now = LocalDateTime.now();
+    private Map<String, Long> toCountMap(List<Object[]> rows) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            if (row[0] != null) {
+                counts.put(((Enum<?>) row[0]).name(), (Long) row[1]);
+            }
+        }
+        return counts;
+    }
+    
+    private TicketSlice findSlice(TicketStatus status, TicketPriority priority, TicketCategory category,
+                                  User createdBy, User assignedTo, boolean unassigned, boolean openOnly,
+                                  boolean escalated, String cursor, int size) {
+        CursorPosition position = parseCursor(cursor);
+        // Fetch one extra row to know whether there is a next slice
+        List<Ticket> tickets = ticketRepository.findTicketsBefore(status, priority, category, createdBy, assignedTo,
+            unassigned, openOnly, escalated,
+            position != null ? position.timestamp : null, position != null ? position.id : null,
+            PageRequest.of(0, size + 1));
+        boolean hasNext = tickets.size() > size;
+        List<Ticket> content = hasNext ? tickets.subList(0, size) : tickets;
+        String nextCursor = null;
+        if (hasNext) {
+            Ticket last = content.get(content.size() - 1);
+            nextCursor = last.getCreatedAt() + "," + last.getId();
+        }
+        return new TicketSlice(content, nextCursor, hasNext);
+    }
+    
+    private CursorPosition parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        int separator = cursor.lastIndexOf(',');
+        try {
+            return new CursorPosition(LocalDateTime.parse(cursor.substring(0, separator).trim()),
+                Long.parseLong(cursor.substring(separator + 1).trim()));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor, expected <timestamp>,<id>: " + cursor);
+        }
+    }
+    
+    private int comparePosition(LocalDateTime timestamp, Long id, LocalDateTime otherTimestamp, Long otherId) {
+        int byTime = timestamp.compareTo(otherTimestamp);
+        return byTime != 0 ? byTime : id.compareTo(otherId);
+    }
+    
+    private LocalDateTime calculateDueDate(TicketPriority priority, LocalDateTime from) {
         return switch (priority) {
-            case CRITICAL -> now.plusHours(4);
-            case HIGH -> now.plusDays(1);
-            case MEDIUM -> now.plusDays(3);
-            case LOW -> now.plusDays(7);
+            case CRITICAL -> from.plusHours(4);
+            case HIGH -> from.plusDays(1);
+            case MEDIUM -> from.plusDays(3);
+            case LOW -> from.plusDays(7);
         };
     }
     
-    private void addStatusChangeComment(Ticket ticket, TicketStatus oldStatus, TicketStatus newStatus) {
+    private List<BulkTicketResult> applyBulkChunk(BulkAction action, List<Long> ids, User assignedTo,
+                                                  TicketStatus targetStatus, String comment, User actor) {
+        Map<Long, Ticket> tickets = new HashMap<>();
+        ticketRepository.findAllById(ids).forEach(ticket -> tickets.put(ticket.getId(), ticket));
+        
+        Map<Long, BulkOutcome> outcomes = new LinkedHashMap<>();
+        List<Ticket> changed = new ArrayList<>();
+        for (Long id : ids) {
+            Ticket ticket = tickets.get(id);
+            if (ticket == null) {
+                outcomes.put(id, BulkOutcome.NOT_FOUND);
+            } else if (!SecurityUtils.canAccessTicket(actor,
+                           ticket.getCreatedBy() != null ? ticket.getCreatedBy().getId() : null,
+                           ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null)) {
+                outcomes.put(id, BulkOutcome.FORBIDDEN);
+            } else if (action == BulkAction.ASSIGN ? ticket.getAssignedTo() != null &&
+                       ticket.getAssignedTo().getId().equals(assignedTo.getId()) : ticket.getStatus() == targetStatus) {
+                outcomes.put(id, BulkOutcome.UNCHANGED);
+            } else {
+                outcomes.put(id, BulkOutcome.UPDATED);
+                changed.add(ticket);
+            }
+        }
+        
+        if (!changed.isEmpty()) {
+            // Truncated to the stored precision, so that the rows this update changed can be found by their timestamp
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            LocalDateTime resolvedAt = targetStatus == TicketStatus.RESOLVED || targetStatus == TicketStatus.CLOSED ? now : null;
+            
+            // Update each group of tickets loaded at the same version, skipping tickets changed since they were loaded
+            Map<Long, List<Ticket>> byVersion = new LinkedHashMap<>();
+            changed.forEach(ticket -> byVersion.computeIfAbsent(ticket.getVersion(), v -> new ArrayList<>()).add(ticket));
+            List<Ticket> applied = new ArrayList<>(changed.size());
+            for (Map.Entry<Long, List<Ticket>> group : byVersion.entrySet()) {
+                List<Long> groupIds = group.getValue().stream().map(Ticket::getId).toList();
+                int updated = action == BulkAction.ASSIGN
+                    ? ticketRepository.bulkAssign(groupIds, group.getKey(), assignedTo, TicketStatus.OPEN,
+                                                  TicketStatus.IN_PROGRESS, now)
+                    : ticketRepository.bulkChangeStatus(groupIds, group.getKey(), targetStatus, resolvedAt, now);
+                if (updated == groupIds.size()) {
+                    applied.addAll(group.getValue());
+                    continue;
+                }
+                Set<Long> updatedIds = new HashSet<>(ticketRepository.findIdsUpdatedAt(groupIds, group.getKey() + 1, now));
+                for (Ticket ticket : group.getValue()) {
+                    if (updatedIds.contains(ticket.getId())) {
+                        applied.add(ticket);
+                    } else {
+                        outcomes.put(ticket.getId(), BulkOutcome.CONFLICT);
+                    }
+                }
+            }
+            
+            // The UPDATE detached the loaded tickets; apply the same change to them for comments, counters and events
+            List<TicketComment> comments = new ArrayList<>();
+            Map<Long, User> previousAssignees = new HashMap<>();
+            for (Ticket ticket : applied) {
+                if (action == BulkAction.ASSIGN) {
+                    previousAssignees.put(ticket.getId(), ticket.getAssignedTo());
+                    comments.add(assignmentChangeComment(ticket, ticket.getAssignedTo(), assignedTo));
+                    ticket.setAssignedTo(assignedTo);
+                    if (ticket.getStatus() == TicketStatus.OPEN) {
+                        ticket.setStatus(TicketStatus.IN_PROGRESS);
+                    }
+                } else {
+                    comments.add(statusChangeComment(ticket, ticket.getStatus(), targetStatus));
+                    ticket.setStatus(targetStatus);
+                    if (resolvedAt != null) {
+                        ticket.setResolvedAt(resolvedAt);
+                    }
+                }
+                ticket.setUpdatedAt(now);
+                ticket.setVersion(ticket.getVersion() + 1);
+                if (comment != null && !comment.trim().isEmpty()) {
+                    TicketComment userComment = new TicketComment(ticket, systemCommentAuthor(ticket), comment);
+                    userComment.setCommentType(CommentType.COMMENT);
+                    comments.add(userComment);
+                }
+            }
+            ticketCommentRepository.saveAll(comments);
+            comments.forEach(ticketSearchIndex::indexComment);
+            statisticsCounterService.recordTicketChanges(applied);
+            ticketRollupService.recordTicketChanges(applied);
+            
+            for (Ticket ticket : applied) {
+                slaMonitor.track(ticket);
+                if (action == BulkAction.ASSIGN) {
+                    ticketEventPublisher.publish(TicketEventPublisher.TicketEventType.ASSIGNED, ticket,
+                        previousAssignees.get(ticket.getId()));
+                } else {
+                    ticketEventPublisher.publish(TicketEventPublisher.TicketEventType.STATUS_CHANGED, ticket);
+                }
+            }
+        }
+        
+        List<BulkTicketResult> results = new ArrayList<>(ids.size());
+        // Forbidden tickets are reported without their state, conflicting tickets without their stale loaded state
+        outcomes.forEach((id, outcome) -> results.add(new BulkTicketResult(id, outcome,
+            outcome == BulkOutcome.FORBIDDEN || outcome == BulkOutcome.CONFLICT ? null : tickets.get(id))));
+        return results;
+    }
+    
+    private TicketComment systemComment(Ticket ticket, User author, String comment) {
+        TicketComment systemComment = new TicketComment(ticket, author, comment, true);
+        systemComment.setCommentType(CommentType.SYSTEM);
+        return systemComment;
+    }
+    
+    private TicketComment statusChangeComment(Ticket ticket, TicketStatus oldStatus, TicketStatus newStatus) {
         String comment = String.format("Status changed from %s to %s", oldStatus.getDisplayName(), newStatus.getDisplayName());
-        TicketComment statusComment = new TicketComment(ticket, ticket.getAssignedTo(), comment, true);
+        TicketComment statusComment = new TicketComment(ticket, systemCommentAuthor(ticket), comment, true);
         statusComment.setCommentType(CommentType.STATUS_CHANGE);
-        ticketCommentRepository.save(statusComment);
+        return statusComment;
     }
     
-    private void addPriorityChangeComment(Ticket ticket, TicketPriority oldPriority, TicketPriority newPriority) {
+    private TicketComment priorityChangeComment(Ticket ticket, TicketPriority oldPriority, TicketPriority newPriority) {
         String comment = String.format("Priority changed from %s to %s", oldPriority.getDisplayName(), newPriority.getDisplayName());
-        TicketComment priorityComment = new TicketComment(ticket, ticket.getAssignedTo(), comment, true);
+        TicketComment priorityComment = new TicketComment(ticket, systemCommentAuthor(ticket), comment, true);
         priorityComment.setCommentType(CommentType.PRIORITY_CHANGE);
-        ticketCommentRepository.save(priorityComment);
+        return priorityComment;
     }
     
-    private void addAssignmentChangeComment(Ticket ticket, User oldAssignee, User newAssignee) {
+    private User systemCommentAuthor(Ticket ticket) {
+        // Unassigned tickets (e.g. escalated on SLA breach) have no assignee to attribute the change to
+        return ticket.getAssignedTo() != null ? ticket.getAssignedTo() : ticket.getCreatedBy();
+    }
+    
+    private TicketComment assignmentChangeComment(Ticket ticket, User oldAssignee, User newAssignee) {
         String comment;
-        if (oldAssignee == null) {
+        if (newAssignee == null) {
+            comment = String.format("Ticket unassigned from %s", oldAssignee.getFullName());
+        } else if (oldAssignee == null) {
             comment = String.format("Ticket assigned to %s", newAssignee.getFullName());
         } else {
             comment = String.format("Ticket reassigned from %s to %s", oldAssignee.getFullName(), newAssignee.getFullName());
         }
-        TicketComment assignmentComment = new TicketComment(ticket, newAssignee, comment, true);
+        TicketComment assignmentComment = new TicketComment(ticket, newAssignee != null ? newAssignee : oldAssignee, comment, true);
         assignmentComment.setCommentType(CommentType.ASSIGNMENT_CHANGE);
-        ticketCommentRepository.save(assignmentComment);
+        return assignmentComment;
     }
     
     /**
@@ -436,4 +1046,140 @@ public class TicketService {
         public long getUnassignedTickets() { return unassignedTickets; }
         public long getEscalatedTickets() { return escalatedTickets; }
     }
+    
+    /**
+     * Inner class for a keyset slice of tickets
+     */
+    public static class TicketSlice {
+        private final List<Ticket> content;
+        private final String nextCursor;
+        private final boolean hasNext;
+        
+        public TicketSlice(List<Ticket> content, String nextCursor, boolean hasNext) {
+            this.content = content;
+            this.nextCursor = nextCursor;
+            this.hasNext = hasNext;
+        }
+        
+        // Getters
+        public List<Ticket> getContent() { return content; }
+        public String getNextCursor() { return nextCursor; }
+        public boolean isHasNext() { return hasNext; }
+    }
+    
+    /**
+     * Inner class for a page of ticket changes
+     */
+    public static class TicketChanges {
+        private final List<Ticket> changed;
+        private final List<Long> deletedIds;
+        private final String nextCursor;
+        private final boolean hasMore;
+        private final boolean fullResyncRequired;
+        
+        public TicketChanges(List<Ticket> changed, List<Long> deletedIds, String nextCursor,
+                             boolean hasMore, boolean fullResyncRequired) {
+            this.changed = changed;
+            this.deletedIds = deletedIds;
+            this.nextCursor = nextCursor;
+            this.hasMore = hasMore;
+            this.fullResyncRequired = fullResyncRequired;
+        }
+        
+        // Getters
+        public List<Ticket> getChanged() { return changed; }
+        public List<Long> getDeletedIds() { return deletedIds; }
+        public String getNextCursor() { return nextCursor; }
+        public boolean isHasMore() { return hasMore; }
+        public boolean isFullResyncRequired() { return fullResyncRequired; }
+    }
+    
+    /**
+     * Position of a keyset cursor: "timestamp,id"
+     */
+    private static class CursorPosition {
+        private final LocalDateTime timestamp;
+        private final long id;
+        
+        CursorPosition(LocalDateTime timestamp, long id) {
+            this.timestamp = timestamp;
+            this.id = id;
+        }
+    }
+    
+    /**
+     * Inner class for summed ticket hours
+     */
+    public static class HoursSummary {
+        private final long actualHours;
+        private final long estimatedHours;
+        
+        public HoursSummary(long actualHours, long estimatedHours) {
+            this.actualHours = actualHours;
+            this.estimatedHours = estimatedHours;
+        }
+        
+        // Getters
+        public long getActualHours() { return actualHours; }
+        public long getEstimatedHours() { return estimatedHours; }
+    }
+    
+    /**
+     * Inner class for the outcome of a bulk operation
+     */
+    public static class BulkResult {
+        private final BulkAction action;
+        private final long updated;
+        private final long unchanged;
+        private final long notFound;
+        private final long forbidden;
+        private final long conflicts;
+        private final List<BulkTicketResult> results;
+        
+        public BulkResult(BulkAction action, List<BulkTicketResult> results) {
+            this.action = action;
+            this.results = results;
+            this.updated = results.stream().filter(r -> r.getOutcome() == BulkOutcome.UPDATED).count();
+            this.unchanged = results.stream().filter(r -> r.getOutcome() == BulkOutcome.UNCHANGED).count();
+            this.notFound = results.stream().filter(r -> r.getOutcome() == BulkOutcome.NOT_FOUND).count();
+            this.forbidden = results.stream().filter(r -> r.getOutcome() == BulkOutcome.FORBIDDEN).count();
+            this.conflicts = results.stream().filter(r -> r.getOutcome() == BulkOutcome.CONFLICT).count();
+        }
+        
+        // Getters
+        public BulkAction getAction() { return action; }
+        public int getRequested() { return results.size(); }
+        public long getUpdated() { return updated; }
+        public long getUnchanged() { return unchanged; }
+        public long getNotFound() { return notFound; }
+        public long getForbidden() { return forbidden; }
+        public long getConflicts() { return conflicts; }
+        public List<BulkTicketResult> getResults() { return results; }
+    }
+    
+    /**
+     * Inner class for the outcome of a bulk operation for one ticket, with its resulting status, assignee and version
+     */
+    public static class BulkTicketResult {
+        private final Long ticketId;
+        private final BulkOutcome outcome;
+        private final TicketStatus status;
+        private final Long assignedToId;
+        private final Long version;
+        
+        public BulkTicketResult(Long ticketId, BulkOutcome outcome, Ticket ticket) {
+            this.ticketId = ticketId;
+            this.outcome = outcome;
+            this.status = ticket != null ? ticket.getStatus() : null;
+            this.assignedToId = ticket != null && ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null;
+            this.version = ticket != null ? ticket.getVersion() : null;
+        }
+        
+        // Getters
+        public Long getTicketId() { return ticketId; }
+        public BulkOutcome getOutcome() { return outcome; }
+        public TicketStatus getStatus() { return status; }
+        public Long getAssignedToId() { return assignedToId; }
+        public Long getVersion() { return version; }
+    }
 }
@@ -3,6 +3,7 @@ package ma.gov.dgh.helpdesk.service;
 import ma.gov.dgh.helpdesk.entity.User;
 import ma.gov.dgh.helpdesk.entity.UserRole;
 import ma.gov.dgh.helpdesk.repository.UserRepository;
+import ma.gov.dgh.helpdesk.security.PrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -22,10 +23,17 @@ import ma.gov.dgh.helpdesk.dto.UserAdminDto;
 public class UserService {
     
     private final UserRepository userRepository;
+    private final StatisticsCounterService statisticsCounterService;
+    private final PrincipalCache principalCache;
+    private final TicketEventPublisher ticketEventPublisher;
     
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, StatisticsCounterService statisticsCounterService,
+                       PrincipalCache principalCache, TicketEventPublisher ticketEventPublisher) {
         this.userRepository = userRepository;
+        this.statisticsCounterService = statisticsCounterService;
+        this.principalCache = principalCache;
+        this.ticketEventPublisher = ticketEventPublisher;
     }
     
     /**
@@ -38,7 +46,7 @@ public class UserService {
         if (userRepository.existsByEmail(user.getEmail())) {
             throw new IllegalArgumentException("User with email already exists: " + user.getEmail());
         }
-        return userRepository.save(user);
+        return saveUser(user);
     }
     
     /**
@@ -66,7 +74,8 @@ public class UserService {
             throw new IllegalArgumentException("Another user with email already exists: " + user.getEmail());
         }
         
-        return userRepository.save(user);
+        invalidateUser(user.getId());
+        return saveUser(user);
     }
     
     /**
@@ -177,7 +186,8 @@ public class UserService {
         
         User user = userOpt.get();
         user.setIsActive(false);
-        return userRepository.save(user);
+        invalidateUser(userId);
+        return saveUser(user);
     }
     
     /**
@@ -191,7 +201,8 @@ public class UserService {
         
         User user = userOpt.get();
         user.setIsActive(true);
-        return userRepository.save(user);
+        invalidateUser(userId);
+        return saveUser(user);
     }
     
     /**
@@ -205,7 +216,7 @@ public class UserService {
         
         User user = userOpt.get();
         user.setLastLogin(LocalDateTime.now());
-        return userRepository.save(user);
+        return saveUser(user);
     }
     
     /**
@@ -219,7 +230,8 @@ public class UserService {
         
         User user = userOpt.get();
         user.setRole(newRole);
-        return userRepository.save(user);
+        invalidateUser(userId);
+        return saveUser(user);
     }
     
     /**
@@ -234,13 +246,7 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public UserStatistics getUserStatistics() {
-        long totalUsers = userRepository.count();
-        long activeUsers = userRepository.countByIsActiveTrue();
-        long adminUsers = userRepository.countByRole(UserRole.ADMIN);
-        long technicianUsers = userRepository.countByRole(UserRole.TECHNICIAN);
-        long employeeUsers = userRepository.countByRole(UserRole.EMPLOYEE);
-        
-        return new UserStatistics(totalUsers, activeUsers, adminUsers, technicianUsers, employeeUsers);
+        return StatisticsCounterService.toUserStatistics(statisticsCounterService.getCounters());
     }
     
     /**
@@ -280,13 +286,14 @@ public class UserService {
             user.setDepartment(department);
             user.setRole(role); // Update role if provided
             user.setIsActive(true); // Reactivate if was deactivated
-            return userRepository.save(user);
+            invalidateUser(user.getId());
+            return saveUser(user);
         } else {
             // Create new user
             User newUser = new User(ldapUsername, email, fullName);
             newUser.setDepartment(department);
             newUser.setRole(role); // Use provided role
-            return userRepository.save(newUser);
+            return saveUser(newUser);
         }
     }
     
@@ -314,6 +321,20 @@ public class UserService {
             .toList();
     }
     
+    // Private helper methods
+    
+    private User saveUser(User user) {
+        User savedUser = userRepository.save(user);
+        statisticsCounterService.recordUserChange(savedUser);
+        return savedUser;
+    }
+    
+    private void invalidateUser(Long userId) {
+        // Cached principals and open ticket streams were authorized with the old role and active flag
+        principalCache.invalidateUser(userId);
+        ticketEventPublisher.closeUserStreams(userId);
+    }
+    
     /**
      * Inner class for user statistics
      */
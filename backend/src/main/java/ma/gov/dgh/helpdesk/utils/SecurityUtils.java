@@ -105,29 +105,38 @@ public class SecurityUtils {
      * @return true if the user can access the ticket, false otherwise
      */
     public static boolean canAccessTicket(Ticket ticket) {
-        Optional<User> currentUser = getCurrentUser();
-        if (currentUser.isEmpty()) {
-            return false;
-        }
-
-        User user = currentUser.get();
-
-        // Admins can access all tickets
-        if (isAdmin()) {
-            return true;
-        }
+        return getCurrentUser()
+            .map(user -> canAccessTicket(user,
+                ticket.getCreatedBy() != null ? ticket.getCreatedBy().getId() : null,
+                ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null))
+            .orElse(false);
+    }
 
-        // Technicians can access tickets assigned to them or tickets they created
-        if (isTechnician()) {
-            return (ticket.getAssignedTo() != null && ticket.getAssignedTo().getId().equals(user.getId())) ||
-                   (ticket.getCreatedBy() != null && ticket.getCreatedBy().getId().equals(user.getId()));
+    /**
+     * Check if a given user can access a ticket, without reading the security context
+     *
+     * @param user The user to check access for
+     * @param createdById ID of the ticket creator (may be null)
+     * @param assignedToId ID of the ticket assignee (may be null)
+     * @return true if the user can access the ticket, false otherwise
+     */
+    public static boolean canAccessTicket(User user, Long createdById, Long assignedToId) {
+        if (user == null || user.getRole() == null) {
+            return false;
         }
 
-        // Employees can only access tickets they created
-        if (isEmployee()) {
-            return ticket.getCreatedBy() != null && ticket.getCreatedBy().getId().equals(user.getId());
+        switch (user.getRole()) {
+            // Admins can access all tickets
+            case ADMIN:
+                return true;
+            // Technicians can access tickets assigned to them or tickets they created
+            case TECHNICIAN:
+                return user.getId().equals(assignedToId) || user.getId().equals(createdById);
+            // Employees can only access tickets they created
+            case EMPLOYEE:
+                return user.getId().equals(createdById);
+            default:
+                return false;
         }
-
-        return false;
     }
-}
\ No newline at end of file
+}
@@ -15,6 +15,10 @@ VALUES
 ('yidrissi', 'yidrissi@dgh.gov.ma', 'Yidrissi', 'General Department', 'EMPLOYEE', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('ktazi', 'ktazi@dgh.gov.ma', 'Ktazi', 'General Department', 'EMPLOYEE', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
+-- Rows inserted by these scripts start at version 0 (optimistic locking)
+ALTER TABLE equipment ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE tickets ALTER COLUMN version SET DEFAULT 0;
+
 -- Insert sample equipment
 INSERT INTO equipment (hostname, ip_address, mac_address, equipment_type, manufacturer, model, os_name, location, status, is_managed, created_at, updated_at, last_seen)
 VALUES 
@@ -44,6 +48,9 @@ VALUES
 ('Software license renewal', 'Adobe Creative Suite license expires next month', 'MEDIUM', 'OPEN', 'REQUEST', 6, 4, null, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('Backup system check', 'Need to verify backup system is working properly', 'HIGH', 'OPEN', 'REQUEST', 1, 3, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
+-- Comment ids come from a sequence; let plain SQL inserts draw from it too
+ALTER TABLE ticket_comments ALTER COLUMN id SET DEFAULT NEXT VALUE FOR ticket_comments_seq;
+
 -- Insert sample ticket comments (using LDAP user IDs)
 -- User IDs: 1=aalami(ADMIN), 2=fbenali(ADMIN), 3=ochakir(TECHNICIAN), 4=amansouri(TECHNICIAN), 5=yidrissi(EMPLOYEE), 6=ktazi(EMPLOYEE)
 INSERT INTO ticket_comments (ticket_id, user_id, comment, is_internal, created_at, comment_type)
@@ -84,10 +91,13 @@ VALUES
 -- Create indexes for better performance (if not already created by JPA)
 CREATE INDEX IF NOT EXISTS idx_tickets_created_at ON tickets(created_at);
 CREATE INDEX IF NOT EXISTS idx_tickets_status_priority ON tickets(status, priority);
+CREATE INDEX IF NOT EXISTS idx_ticket_updated_at_id ON tickets(updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_ticket_due_date ON tickets(due_date);
 CREATE INDEX IF NOT EXISTS idx_equipment_last_seen ON equipment(last_seen);
 CREATE INDEX IF NOT EXISTS idx_equipment_status_type ON equipment(status, equipment_type);
 CREATE INDEX IF NOT EXISTS idx_users_department_role ON users(department, role);
 CREATE INDEX IF NOT EXISTS idx_ticket_comments_created_at ON ticket_comments(created_at);
+CREATE INDEX IF NOT EXISTS idx_ticket_daily_rollups_date ON ticket_daily_rollups(rollup_date);
 
 -- Insert some sample departments for reference
 -- Note: This would typically come from LDAP, but we're adding some for testing
@@ -113,8 +123,9 @@ CREATE TABLE IF NOT EXISTS activity_logs (
 
 -- Create indexes for activity_logs table
 CREATE INDEX IF NOT EXISTS idx_activity_logs_timestamp ON activity_logs(timestamp);
-CREATE INDEX IF NOT EXISTS idx_activity_logs_user_identifier ON activity_logs(user_identifier);
-CREATE INDEX IF NOT EXISTS idx_activity_logs_action ON activity_logs(action);
+CREATE INDEX IF NOT EXISTS idx_activity_logs_user_timestamp ON activity_logs(user_identifier, timestamp);
+CREATE INDEX IF NOT EXISTS idx_activity_logs_action_timestamp ON activity_logs(action, timestamp);
+CREATE INDEX IF NOT EXISTS idx_activity_logs_ip_action_timestamp ON activity_logs(ip_address, action, timestamp);
 CREATE INDEX IF NOT EXISTS idx_activity_logs_severity ON activity_logs(severity);
 
 -- Insert sample activity logs (using LDAP usernames)
@@ -0,0 +1,71 @@
+package ma.gov.dgh.helpdesk.controller;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import ma.gov.dgh.helpdesk.dgh_helpdesk.DghHelpdeskApplication;
+import ma.gov.dgh.helpdesk.entity.Ticket;
+import ma.gov.dgh.helpdesk.service.TicketService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks that building TicketDTOs (creator and assignee included) does not issue one query per ticket
+ */
+@SpringBootTest(classes = DghHelpdeskApplication.class,
+                properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class TicketControllerStatementCountTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Start from an empty persistence context so every user has to come from the database
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void ticketPageIsLoadedInOneStatement() {
+        Page<Ticket> page = ticketService.findTicketsWithFilters(null, null, null, null, null, null, null,
+            PageRequest.of(0, 100, Sort.by("createdAt").descending()));
+        List<TicketController.TicketDTO> dtos = page.map(TicketController.TicketDTO::new).getContent();
+
+        assertFalse(dtos.isEmpty());
+        // The page fits in one request, so no count query is needed either
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void ticketListIsLoadedInOneStatement() {
+        List<TicketController.TicketDTO> dtos = ticketService.findOpenTickets(null, 100).getContent().stream()
+            .map(TicketController.TicketDTO::new)
+            .toList();
+
+        assertFalse(dtos.isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,64 @@
+package ma.gov.dgh.helpdesk.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of per-request token verification.
+ * Compares the shared key/parser of JwtTokenProvider with building them on every call (the previous behaviour).
+ *
+ * Run with:
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) ma.gov.dgh.helpdesk.security.JwtTokenProviderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET =
+        "benchmark-jwt-signing-key-that-is-definitely-long-enough-for-the-hs512-algorithm-2024";
+
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider(SECRET, 86400000);
+        token = tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(
+            User.withUsername("benchmark").password("n/a").roles("USER").build(), null));
+    }
+
+    @Benchmark
+    public JwtTokenProvider.ParsedToken parseAndValidate() {
+        return tokenProvider.parseAndValidate(token);
+    }
+
+    @Benchmark
+    public String perCallKeyAndParser() {
+        return Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+            .build()
+            .parseClaimsJws(token)
+            .getBody()
+            .getSubject();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(JwtTokenProviderBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
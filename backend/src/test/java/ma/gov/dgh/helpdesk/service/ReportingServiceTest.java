@@ -0,0 +1,125 @@
+package ma.gov.dgh.helpdesk.service;
+
+import jakarta.persistence.EntityManager;
+import ma.gov.dgh.helpdesk.dgh_helpdesk.DghHelpdeskApplication;
+import ma.gov.dgh.helpdesk.entity.Ticket;
+import ma.gov.dgh.helpdesk.entity.TicketCategory;
+import ma.gov.dgh.helpdesk.entity.TicketPriority;
+import ma.gov.dgh.helpdesk.entity.TicketStatus;
+import ma.gov.dgh.helpdesk.entity.User;
+import ma.gov.dgh.helpdesk.service.ReportingService.ReportDimension;
+import ma.gov.dgh.helpdesk.service.ReportingService.ResolutionMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the resolution metrics queries (percentiles included) against the database
+ */
+@SpringBootTest(classes = DghHelpdeskApplication.class)
+@Transactional
+class ReportingServiceTest {
+
+    private static final double HOURS_PER_DAY = 24.0;
+    private static final double TOLERANCE = 0.01;
+
+    @Autowired
+    private ReportingService reportingService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        // Resolved far enough ahead that no seed ticket falls in the report window
+        now = LocalDateTime.now();
+        User technician = entityManager.find(User.class, 4L);
+        User otherTechnician = entityManager.find(User.class, 5L);
+        persist(TicketCategory.HARDWARE, TicketPriority.HIGH, technician, 10 * 24 + 2, 10 * 24 + 3);
+        persist(TicketCategory.HARDWARE, TicketPriority.HIGH, technician, 10 * 24 + 4, 10 * 24 + 3);
+        persist(TicketCategory.HARDWARE, TicketPriority.LOW, technician, 10 * 24 + 6, null);
+        persist(null, null, otherTechnician, 10 * 24 + 12, null);
+        entityManager.flush();
+        reportingService.clearCache();
+    }
+
+    @Test
+    void categoryReportIncludesUncategorizedTickets() {
+        Map<String, ResolutionMetrics> metrics = report(ReportDimension.CATEGORY);
+
+        assertEquals(2, metrics.size());
+        ResolutionMetrics hardware = metrics.get(TicketCategory.HARDWARE.name());
+        assertEquals(3, hardware.getResolvedTickets());
+        assertEquals(10 * HOURS_PER_DAY + 4, hardware.getAvgResolutionHours(), TOLERANCE);
+        assertEquals(10 * HOURS_PER_DAY + 4, hardware.getMedianResolutionHours(), TOLERANCE);
+        assertEquals(10 * HOURS_PER_DAY + 5.6, hardware.getP90ResolutionHours(), TOLERANCE);
+        assertEquals(2, hardware.getTicketsWithDueDate());
+        assertEquals(1, hardware.getTicketsResolvedInTime());
+        assertEquals(50.0, hardware.getSlaCompliance(), TOLERANCE);
+
+        ResolutionMetrics uncategorized = metrics.get(ReportingService.UNSET_KEY);
+        assertEquals("Uncategorized", uncategorized.getLabel());
+        assertEquals(1, uncategorized.getResolvedTickets());
+        assertEquals(100.0, uncategorized.getSlaCompliance(), TOLERANCE);
+    }
+
+    @Test
+    void priorityReportIncludesTicketsWithoutPriority() {
+        Map<String, ResolutionMetrics> metrics = report(ReportDimension.PRIORITY);
+
+        assertEquals(3, metrics.size());
+        assertEquals(2, metrics.get(TicketPriority.HIGH.name()).getResolvedTickets());
+        assertEquals(10 * HOURS_PER_DAY + 3, metrics.get(TicketPriority.HIGH.name()).getMedianResolutionHours(),
+            TOLERANCE);
+        assertEquals(1, metrics.get(TicketPriority.LOW.name()).getResolvedTickets());
+        assertEquals(1, metrics.get(ReportingService.UNSET_KEY).getResolvedTickets());
+    }
+
+    @Test
+    void technicianReportGroupsByAssignee() {
+        Map<String, ResolutionMetrics> metrics = report(ReportDimension.TECHNICIAN);
+
+        assertEquals(2, metrics.size());
+        assertEquals(3, metrics.get("4").getResolvedTickets());
+        assertEquals(1, metrics.get("5").getResolvedTickets());
+        assertEquals(10 * HOURS_PER_DAY + 12, metrics.get("5").getP90ResolutionHours(), TOLERANCE);
+    }
+
+    // Private helper methods
+
+    private Map<String, ResolutionMetrics> report(ReportDimension dimension) {
+        List<ResolutionMetrics> metrics = reportingService
+            .getResolutionReport(dimension, now.plusDays(10), now.plusDays(11))
+            .getMetrics();
+        return metrics.stream().collect(Collectors.toMap(ResolutionMetrics::getKey, Function.identity()));
+    }
+
+    private void persist(TicketCategory category, TicketPriority priority, User assignee,
+                         long resolvedAfterHours, Integer dueAfterHours) {
+        Ticket ticket = new Ticket();
+        ticket.setTitle("Resolution report ticket");
+        ticket.setCategory(category);
+        ticket.setPriority(priority);
+        ticket.setStatus(TicketStatus.RESOLVED);
+        ticket.setCreatedBy(entityManager.find(User.class, 6L));
+        ticket.setAssignedTo(assignee);
+        entityManager.persist(ticket);
+        // The creation timestamp is set on persist, resolution and due dates are relative to it
+        ticket.setResolvedAt(ticket.getCreatedAt().plusHours(resolvedAfterHours));
+        if (dueAfterHours != null) {
+            ticket.setDueDate(ticket.getCreatedAt().plusHours(dueAfterHours));
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package ma.gov.dgh.helpdesk.service;
+
+import ma.gov.dgh.helpdesk.entity.Ticket;
+import ma.gov.dgh.helpdesk.entity.TicketStatus;
+import ma.gov.dgh.helpdesk.repository.TicketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the SLA timer wheel tick by tick, without the timer thread
+ */
+class SlaMonitorTest {
+
+    private static final long START = 1_700_000_000_000L;
+    private static final long TICK = 1000;
+    private static final int WHEEL_SIZE = 8;
+
+    private TicketRepository ticketRepository;
+    private List<Long> breaches;
+    private int failuresToInject;
+    private SlaMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        ticketRepository = mock(TicketRepository.class);
+        breaches = new ArrayList<>();
+        failuresToInject = 0;
+        monitor = new SlaMonitor(ticketRepository, event -> {
+            if (failuresToInject > 0) {
+                failuresToInject--;
+                throw new IllegalStateException("rejected");
+            }
+            breaches.add(((SlaBreachEvent) event).getTicketId());
+        });
+        ReflectionTestUtils.setField(monitor, "tickMs", TICK);
+        ReflectionTestUtils.setField(monitor, "wheelSize", WHEEL_SIZE);
+        ReflectionTestUtils.setField(monitor, "loadBatchSize", 1000);
+        monitor.initWheel(START);
+    }
+
+    @Test
+    void dueDateIsRoundedUpToTheNextTick() {
+        monitor.track(ticket(1L, at(2500)));
+
+        ticks(2);
+        assertEquals(List.of(), breaches);
+        ticks(1);
+        assertEquals(List.of(1L), breaches);
+        assertEquals(1, monitor.getOverdueCount());
+        assertEquals(0, monitor.getPendingCount());
+    }
+
+    @Test
+    void pastDueDateFiresOnTheNextTick() {
+        ticks(5);
+        monitor.track(ticket(1L, at(-60_000)));
+
+        ticks(1);
+        assertEquals(List.of(1L), breaches);
+    }
+
+    @Test
+    void timeoutSpanningSeveralRoundsFiresInItsOwnRound() {
+        // Tick 20 shares its slot with ticks 4 and 12
+        monitor.track(ticket(1L, at(20 * TICK)));
+
+        ticks(19);
+        assertEquals(List.of(), breaches);
+        ticks(1);
+        assertEquals(List.of(1L), breaches);
+
+        ticks(3 * WHEEL_SIZE);
+        assertEquals(List.of(1L), breaches);
+    }
+
+    @Test
+    void rescheduledTimeoutFiresOnlyAtItsNewDueDate() {
+        monitor.track(ticket(1L, at(3 * TICK)));
+        monitor.track(ticket(1L, at(5 * TICK)));
+
+        ticks(4);
+        assertEquals(List.of(), breaches);
+        ticks(1);
+        assertEquals(List.of(1L), breaches);
+    }
+
+    @Test
+    void closedTicketIsCancelledAndLeavesTheOverdueList() {
+        monitor.track(ticket(1L, at(2 * TICK)));
+        monitor.track(ticket(2L, at(TICK)));
+        ticks(1);
+        assertEquals(List.of(2L), breaches);
+
+        Ticket closed = ticket(1L, at(2 * TICK));
+        closed.setStatus(TicketStatus.CLOSED);
+        monitor.track(closed);
+        monitor.untrack(2L);
+
+        ticks(WHEEL_SIZE * 2);
+        assertEquals(List.of(2L), breaches);
+        assertEquals(0, monitor.getOverdueCount());
+        assertEquals(0, monitor.getPendingCount());
+    }
+
+    @Test
+    void overdueTicketsAreListedMostOverdueFirst() {
+        monitor.track(ticket(1L, at(-1000)));
+        monitor.track(ticket(2L, at(-5000)));
+        monitor.track(ticket(3L, at(-3000)));
+        ticks(1);
+
+        List<SlaMonitor.OverdueTicket> firstPage = monitor.getOverdue(null, null, 2);
+        assertEquals(List.of(2L, 3L), firstPage.stream().map(SlaMonitor.OverdueTicket::getTicketId).toList());
+        SlaMonitor.OverdueTicket last = firstPage.get(1);
+        assertEquals(List.of(1L), monitor.getOverdue(last.getDueDate(), last.getTicketId(), 2).stream()
+            .map(SlaMonitor.OverdueTicket::getTicketId).toList());
+    }
+
+    @Test
+    void breachIsNotMarkedOverdueUntilItsEventIsAccepted() {
+        monitor.track(ticket(1L, at(TICK)));
+        failuresToInject = 1;
+
+        ticks(1);
+        assertEquals(List.of(), breaches);
+        assertEquals(0, monitor.getOverdueCount());
+        assertEquals(1, monitor.getPendingCount());
+
+        ticks(1);
+        assertEquals(List.of(1L), breaches);
+        assertEquals(1, monitor.getOverdueCount());
+    }
+
+    @Test
+    void startupLoadDoesNotOverrideChangesTrackedMeanwhile() {
+        // Ticket 3 already breached and ticket 1 was rescheduled before the load reached them
+        monitor.track(ticket(3L, at(TICK)));
+        ticks(1);
+        monitor.track(ticket(1L, at(6 * TICK)));
+        when(ticketRepository.findOpenTicketDueDates(anyLong(), any(Pageable.class))).thenReturn(List.of(
+            new Object[] { 1L, at(2 * TICK) },
+            new Object[] { 2L, at(3 * TICK) },
+            new Object[] { 3L, at(TICK) }));
+
+        monitor.loadOnStartup();
+        assertTrue(monitor.isReady());
+        assertEquals(2, monitor.getPendingCount());
+
+        ticks(2);
+        assertEquals(List.of(3L, 2L), breaches);
+        ticks(3);
+        assertEquals(List.of(3L, 2L, 1L), breaches);
+    }
+
+    // Private helper methods
+
+    private void ticks(int count) {
+        for (int i = 0; i < count; i++) {
+            monitor.tick();
+        }
+    }
+
+    private static LocalDateTime at(long offsetMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(START + offsetMillis), ZoneId.systemDefault());
+    }
+
+    private static Ticket ticket(Long id, LocalDateTime dueDate) {
+        Ticket ticket = new Ticket();
+        ticket.setId(id);
+        ticket.setStatus(TicketStatus.OPEN);
+        ticket.setDueDate(dueDate);
+        return ticket;
+    }
+}
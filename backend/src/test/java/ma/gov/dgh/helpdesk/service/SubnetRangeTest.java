@@ -0,0 +1,73 @@
+package ma.gov.dgh.helpdesk.service;
+
+import ma.gov.dgh.helpdesk.service.SubnetSweepService.SubnetRange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks CIDR parsing and the host range swept for each prefix length
+ */
+class SubnetRangeTest {
+
+    @Test
+    void slash24SkipsNetworkAndBroadcastAddresses() {
+        SubnetRange range = SubnetRange.parse("192.168.1.130/24");
+
+        assertEquals("192.168.1.0/24", range.toString());
+        assertEquals("192.168.1.1", SubnetRange.toDottedQuad(range.getFirstHost()));
+        assertEquals("192.168.1.254", SubnetRange.toDottedQuad(range.getLastHost()));
+        assertEquals(254, range.getHostCount());
+    }
+
+    @Test
+    void slash0CoversTheWholeAddressSpace() {
+        SubnetRange range = SubnetRange.parse("10.20.30.40/0");
+
+        assertEquals("0.0.0.0/0", range.toString());
+        assertEquals("0.0.0.1", SubnetRange.toDottedQuad(range.getFirstHost()));
+        assertEquals("255.255.255.254", SubnetRange.toDottedQuad(range.getLastHost()));
+        assertEquals((1L << 32) - 2, range.getHostCount());
+    }
+
+    @Test
+    void slash31HasTwoHostsAndNoBroadcastAddress() {
+        SubnetRange range = SubnetRange.parse("10.0.0.5/31");
+
+        assertEquals("10.0.0.4/31", range.toString());
+        assertEquals("10.0.0.4", SubnetRange.toDottedQuad(range.getFirstHost()));
+        assertEquals("10.0.0.5", SubnetRange.toDottedQuad(range.getLastHost()));
+        assertEquals(2, range.getHostCount());
+    }
+
+    @Test
+    void slash32IsASingleHost() {
+        SubnetRange range = SubnetRange.parse("10.0.0.5/32");
+
+        assertEquals("10.0.0.5/32", range.toString());
+        assertEquals(range.getFirstHost(), range.getLastHost());
+        assertEquals(1, range.getHostCount());
+    }
+
+    @Test
+    void bareAddressIsTreatedAsSlash32() {
+        SubnetRange range = SubnetRange.parse(" 172.16.0.9 ");
+
+        assertEquals(32, range.getPrefixLength());
+        assertEquals("172.16.0.9", SubnetRange.toDottedQuad(range.getFirstHost()));
+        assertEquals(1, range.getHostCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "", "10.0.0.0/", "10.0.0.0/33", "10.0.0.0/-1", "10.0.0.0/+8", "10.0.0.0/abc", "10.0.0.0/24/8",
+        "10.0.0/24", "10.0.0.0.0/24", "10.0.0.1.", "10..0.1", "10.0.0.256/24", "10.0.0.-1/24", "+10.0.0.1",
+        "a.b.c.d/24", "0010.0.0.1"
+    })
+    void invalidCidrIsRejected(String cidr) {
+        assertThrows(IllegalArgumentException.class, () -> SubnetRange.parse(cidr));
+    }
+}
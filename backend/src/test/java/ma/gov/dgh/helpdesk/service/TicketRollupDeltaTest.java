@@ -0,0 +1,143 @@
+package ma.gov.dgh.helpdesk.service;
+
+import ma.gov.dgh.helpdesk.entity.Ticket;
+import ma.gov.dgh.helpdesk.entity.TicketCategory;
+import ma.gov.dgh.helpdesk.entity.TicketDailyRollup;
+import ma.gov.dgh.helpdesk.entity.TicketDailyRollup.Contribution;
+import ma.gov.dgh.helpdesk.entity.TicketPriority;
+import ma.gov.dgh.helpdesk.entity.TicketStatus;
+import ma.gov.dgh.helpdesk.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the rollup count changes computed from a ticket's previous and current contributions
+ */
+class TicketRollupDeltaTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 3, 10, 9, 0);
+    private static final LocalDate DAY = CREATED.toLocalDate();
+
+    private Map<String, long[]> deltas;
+    private Map<String, Contribution> rows;
+
+    @BeforeEach
+    void setUp() {
+        deltas = new HashMap<>();
+        rows = new HashMap<>();
+    }
+
+    @Test
+    void newTicketCountsOnceOnItsCreationRow() {
+        Ticket ticket = ticket(TicketStatus.OPEN, null);
+
+        TicketRollupService.addDeltas(deltas, rows, null, TicketDailyRollup.contributionsOf(ticket));
+
+        String key = key(DAY, TicketStatus.OPEN, null);
+        assertEquals(Set.of(key), deltas.keySet());
+        assertArrayEquals(new long[] { 1, 0, 0, 0 }, deltas.get(key));
+        assertEquals(key, rows.get(key).getRollupKey());
+    }
+
+    @Test
+    void unchangedTicketHasNoDeltas() {
+        Ticket ticket = ticket(TicketStatus.OPEN, null);
+        Set<Contribution> contributions = TicketDailyRollup.contributionsOf(ticket);
+
+        TicketRollupService.addDeltas(deltas, rows, contributions, TicketDailyRollup.contributionsOf(ticket));
+
+        assertTrue(deltas.isEmpty());
+    }
+
+    @Test
+    void resolvingMovesTheTicketToItsNewStatusRow() {
+        Ticket ticket = ticket(TicketStatus.OPEN, null);
+        Set<Contribution> before = TicketDailyRollup.contributionsOf(ticket);
+        ticket.setStatus(TicketStatus.RESOLVED);
+        ticket.setResolvedAt(CREATED.plusDays(1));
+
+        TicketRollupService.addDeltas(deltas, rows, before, TicketDailyRollup.contributionsOf(ticket));
+
+        assertArrayEquals(new long[] { -1, 0, 0, 0 }, deltas.get(key(DAY, TicketStatus.OPEN, null)));
+        assertArrayEquals(new long[] { 1, 0, 0, 0 }, deltas.get(key(DAY, TicketStatus.RESOLVED, null)));
+        assertArrayEquals(new long[] { 0, 1, 0, 0 }, deltas.get(key(DAY.plusDays(1), TicketStatus.RESOLVED, null)));
+        assertEquals(3, deltas.size());
+    }
+
+    @Test
+    void lateResolutionCountsAnSlaBreachOnTheDueDate() {
+        Ticket ticket = ticket(TicketStatus.IN_PROGRESS, null);
+        ticket.setDueDate(CREATED.plusDays(2));
+        Set<Contribution> before = TicketDailyRollup.contributionsOf(ticket);
+        ticket.setStatus(TicketStatus.RESOLVED);
+        ticket.setResolvedAt(CREATED.plusDays(3));
+
+        TicketRollupService.addDeltas(deltas, rows, before, TicketDailyRollup.contributionsOf(ticket));
+
+        assertArrayEquals(new long[] { 0, 0, 0, 1 }, deltas.get(key(DAY.plusDays(2), TicketStatus.RESOLVED, null)));
+    }
+
+    @Test
+    void bulkChangesAreSummedPerRow() {
+        // Two tickets assigned to the same technician, and one moved back: the last two cancel out
+        Ticket first = ticket(TicketStatus.OPEN, null);
+        Ticket second = ticket(TicketStatus.OPEN, null);
+        User technician = user(4L);
+        for (Ticket ticket : new Ticket[] { first, second }) {
+            Set<Contribution> before = TicketDailyRollup.contributionsOf(ticket);
+            ticket.setAssignedTo(technician);
+            TicketRollupService.addDeltas(deltas, rows, before, TicketDailyRollup.contributionsOf(ticket));
+        }
+        Set<Contribution> assigned = TicketDailyRollup.contributionsOf(second);
+        second.setAssignedTo(null);
+        TicketRollupService.addDeltas(deltas, rows, assigned, TicketDailyRollup.contributionsOf(second));
+
+        assertArrayEquals(new long[] { -1, 0, 0, 0 }, deltas.get(key(DAY, TicketStatus.OPEN, null)));
+        assertArrayEquals(new long[] { 1, 0, 0, 0 }, deltas.get(key(DAY, TicketStatus.OPEN, 4L)));
+    }
+
+    @Test
+    void removedTicketIsSubtractedFromEveryRowItCounted() {
+        Ticket ticket = ticket(TicketStatus.CLOSED, null);
+        ticket.setResolvedAt(CREATED);
+        ticket.setIsEscalated(true);
+
+        TicketRollupService.addDeltas(deltas, rows, TicketDailyRollup.contributionsOf(ticket), Set.of());
+
+        // Escalation without a date counts on the creation day
+        assertArrayEquals(new long[] { -1, -1, -1, 0 }, deltas.get(key(DAY, TicketStatus.CLOSED, null)));
+        assertEquals(1, deltas.size());
+    }
+
+    // Private helper methods
+
+    private static Ticket ticket(TicketStatus status, User assignee) {
+        Ticket ticket = new Ticket();
+        ticket.setStatus(status);
+        ticket.setPriority(TicketPriority.MEDIUM);
+        ticket.setCategory(TicketCategory.HARDWARE);
+        ticket.setCreatedAt(CREATED);
+        ticket.setAssignedTo(assignee);
+        return ticket;
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private static String key(LocalDate day, TicketStatus status, Long assigneeId) {
+        return TicketDailyRollup.keyOf(day, status, TicketPriority.MEDIUM, TicketCategory.HARDWARE, assigneeId);
+    }
+}
@@ -42,6 +42,14 @@ export const activityLogService = {
     return response.data;
   },
 
+  /**
+   * Get the latest activity (served from memory, includes logs not yet stored)
+   */
+  getLiveActivityLogs: async (limit = 50) => {
+    const response = await apiClient.get(`/api/activity-logs/live?limit=${limit}`);
+    return response.data;
+  },
+
   /**
    * Get activity logs by user
    */
@@ -138,7 +146,8 @@ export const activityLogService = {
       startDate,
       endDate,
       userIdentifier,
-      severity
+      severity,
+      format = 'ndjson'
     } = params;
 
     const queryParams = new URLSearchParams();
@@ -146,8 +155,12 @@ export const activityLogService = {
     if (endDate) queryParams.append('endDate', endDate);
     if (userIdentifier) queryParams.append('userIdentifier', userIdentifier);
     if (severity) queryParams.append('severity', severity);
+    queryParams.append('format', format);
 
-    const response = await apiClient.get(`/api/activity-logs/export?${queryParams.toString()}`);
+    // The export is streamed as NDJSON or CSV, download it as a file
+    const response = await apiClient.get(`/api/activity-logs/export?${queryParams.toString()}`, {
+      responseType: 'blob'
+    });
     return response.data;
   },
 
@@ -98,7 +98,8 @@ const dashboardService = {
   getTechnicianEquipmentAlerts: async (technicianId) => {
     try {
       const response = await apiClient.get(`${API_BASE_URL}/technician/${technicianId}/equipment-alerts`);
-      return response.data;
+      // Paginated response: return the current page of alerts
+      return response.data.content;
     } catch (error) {
       console.error('DashboardService: Error fetching technician equipment alerts:', error);
       throw error;
@@ -128,30 +128,30 @@ export const ticketService = {
     }
   },
 
-  // Get tickets by status
-  getTicketsByStatus: async (status) => {
+  // Get a slice of tickets by status ({ content, nextCursor, hasNext }); pass nextCursor as before for the next one
+  getTicketsByStatus: async (status, before, size) => {
     try {
-      const response = await apiClient.get(`/api/tickets/status/${status}`);
+      const response = await apiClient.get(`/api/tickets/status/${status}`, { params: { before, size } });
       return response.data;
     } catch (error) {
       throw new Error(error.response?.data?.message || 'Failed to fetch tickets by status');
     }
   },
 
-  // Get tickets by priority
-  getTicketsByPriority: async (priority) => {
+  // Get a slice of tickets by priority
+  getTicketsByPriority: async (priority, before, size) => {
     try {
-      const response = await apiClient.get(`/api/tickets/priority/${priority}`);
+      const response = await apiClient.get(`/api/tickets/priority/${priority}`, { params: { before, size } });
       return response.data;
     } catch (error) {
       throw new Error(error.response?.data?.message || 'Failed to fetch tickets by priority');
     }
   },
 
-  // Get unassigned tickets
-  getUnassignedTickets: async () => {
+  // Get a slice of unassigned tickets
+  getUnassignedTickets: async (before, size) => {
     try {
-      const response = await apiClient.get('/api/tickets/unassigned');
+      const response = await apiClient.get('/api/tickets/unassigned', { params: { before, size } });
       return response.data;
     } catch (error) {
       throw new Error(error.response?.data?.message || 'Failed to fetch unassigned tickets');